@@ -1,4 +1,9 @@
 package com.budgetup.config;
 
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
 public class AppConfig {
 }
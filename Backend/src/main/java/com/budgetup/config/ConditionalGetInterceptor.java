@@ -0,0 +1,57 @@
+package com.budgetup.config;
+
+import com.budgetup.security.CustomUserDetails;
+import com.budgetup.service.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+
+/**
+ * Answers a GET whose {@code If-None-Match} still matches with 304 before the
+ * handler runs, and tags every other GET with a strong ETag. The tag is built
+ * from the user's versions of the collections the route reads, the current
+ * day (for month- and deadline-relative results) and the request URL, so the
+ * repeat poll is one in-memory lookup.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final ResourceVersions resourceVersions;
+
+    private final ResourceVersions.Collection[] collections;
+
+    public ConditionalGetInterceptor(ResourceVersions resourceVersions, ResourceVersions.Collection... collections) {
+        this.resourceVersions = resourceVersions;
+        this.collections = collections;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails user)) {
+            return true;
+        }
+
+        String url = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        String etag = "\"" + resourceVersions.token(user.getId(), collections)
+                + "-" + Long.toString(LocalDate.now().toEpochDay(), 36)
+                + "-" + Integer.toString(url.hashCode() & Integer.MAX_VALUE, 36) + "\"";
+
+        // Let the browser keep the body but revalidate it on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        // Sets the ETag header, and the 304 status when the client's copy is current
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
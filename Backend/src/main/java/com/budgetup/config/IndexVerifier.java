@@ -0,0 +1,156 @@
+package com.budgetup.config;
+
+import com.budgetup.model.Budget;
+import com.budgetup.model.Goal;
+import com.budgetup.model.GoalContribution;
+import com.budgetup.model.MonthlyRollup;
+import com.budgetup.model.Tombstone;
+import com.budgetup.model.Transaction;
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Explains the filter and sort of every repository query at startup and
+ * reports any that would fall back to a collection scan. Controlled by
+ * {@code app.mongo.index-check}: {@code warn} (default) logs, {@code fail}
+ * aborts startup, {@code off} skips the check.
+ */
+@Component
+public class IndexVerifier implements ApplicationRunner {
+
+    private record Probe(String name, Class<?> entity, Document filter, Document sort) {}
+
+    private static final String PROBE_USER = "index-probe";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.mongo.index-check:warn}")
+    private String mode;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+
+        List<String> scans = new ArrayList<>();
+        for (Probe probe : probes()) {
+            try {
+                Document plan = mongoTemplate.getCollection(mongoTemplate.getCollectionName(probe.entity()))
+                        .find(probe.filter())
+                        .sort(probe.sort())
+                        .explain(ExplainVerbosity.QUERY_PLANNER);
+
+                Document planner = plan.get("queryPlanner", Document.class);
+                if (planner != null && containsStage(planner.get("winningPlan"), "COLLSCAN")) {
+                    scans.add(probe.name());
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Index check could not explain " + probe.name() + ": " + e.getMessage());
+            }
+        }
+
+        if (scans.isEmpty()) {
+            System.out.println("=== Index check: all repository queries use an index ===");
+            return;
+        }
+
+        String message = "Repository queries without a usable index (COLLSCAN): " + String.join(", ", scans);
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException(message);
+        }
+        System.err.println("WARNING: " + message);
+    }
+
+    // One probe per repository query, mirroring the filter and sort Spring Data generates
+    private List<Probe> probes() {
+        Date date = new Date();
+        Document none = new Document();
+        Document byDateDesc = new Document("date", -1);
+        Document bySyncVersion = new Document("userId", PROBE_USER).append("syncVersion", new Document("$gt", 0L));
+        Document bySyncVersionAsc = new Document("syncVersion", 1);
+
+        return List.of(
+                new Probe("TransactionRepository.findByUserIdOrderByDateDesc", Transaction.class,
+                        new Document("userId", PROBE_USER), byDateDesc),
+                new Probe("TransactionRepository.findByUserIdAndDateBetweenOrderByDateDesc", Transaction.class,
+                        new Document("userId", PROBE_USER).append("date", new Document("$gt", date).append("$lt", date)),
+                        byDateDesc),
+                new Probe("TransactionRepository.findByUserIdAndType", Transaction.class,
+                        new Document("userId", PROBE_USER).append("type", "expense"), none),
+                new Probe("TransactionRepository.findByUserIdAndCategory", Transaction.class,
+                        new Document("userId", PROBE_USER).append("category", "Food"), none),
+                new Probe("TransactionRepository.streamAnalyticsFields", Transaction.class,
+                        new Document("userId", PROBE_USER).append("date", new Document("$gte", date).append("$lte", date)),
+                        none),
+                new Probe("TransactionRepository.findPage", Transaction.class,
+                        new Document("userId", PROBE_USER),
+                        new Document("date", -1).append("_id", -1)),
+                new Probe("BudgetRepository.findByUserId", Budget.class,
+                        new Document("userId", PROBE_USER), none),
+                new Probe("BudgetRepository.findByUserIdAndMonthAndYear", Budget.class,
+                        new Document("userId", PROBE_USER).append("month", 1).append("year", 2024), none),
+                new Probe("BudgetRepository.incrementSpent", Budget.class,
+                        new Document("userId", PROBE_USER).append("month", 1).append("year", 2024)
+                                .append("category", "Food"), none),
+                new Probe("GoalRepository.findByUserIdOrderByCreatedAtDesc", Goal.class,
+                        new Document("userId", PROBE_USER), new Document("createdAt", -1)),
+                new Probe("GoalRepository.findByUserIdAndStatus", Goal.class,
+                        new Document("userId", PROBE_USER).append("status", "ACTIVE"), none),
+                new Probe("GoalContributionRepository.findByGoalIdOrderByCreatedAtAsc", GoalContribution.class,
+                        new Document("goalId", PROBE_USER), new Document("createdAt", 1)),
+                new Probe("TransactionRepository.streamDueRecurring", Transaction.class,
+                        new Document("isRecurring", true).append("userId", new Document("$gt", PROBE_USER))
+                                .append("$and", List.of(
+                                        new Document("$or", List.of(new Document("recurringNextDate", new Document("$lte", date)),
+                                                new Document("recurringNextDate", null))),
+                                        new Document("$or", List.of(new Document("recurringHash", new Document("$mod", List.of(16, 0))),
+                                                new Document("recurringHash", null))))),
+                        new Document("userId", 1).append("_id", 1)),
+                new Probe("TransactionRepository.findByUserIdAndSyncVersionGreaterThan", Transaction.class,
+                        bySyncVersion, bySyncVersionAsc),
+                new Probe("BudgetRepository.findByUserIdAndSyncVersionGreaterThan", Budget.class,
+                        bySyncVersion, bySyncVersionAsc),
+                new Probe("GoalRepository.findByUserIdAndSyncVersionGreaterThan", Goal.class,
+                        bySyncVersion, bySyncVersionAsc),
+                new Probe("TombstoneRepository.findByUserIdAndSyncVersionGreaterThan", Tombstone.class,
+                        bySyncVersion, bySyncVersionAsc),
+                new Probe("MonthlyRollupRepository.findByUserIdAndPeriodBetween", MonthlyRollup.class,
+                        new Document("userId", PROBE_USER).append("period", new Document("$gte", 202401).append("$lte", 202412)),
+                        none),
+                new Probe("MonthlyRollupRepository.findByUserIdAndPeriodAndCategory", MonthlyRollup.class,
+                        new Document("userId", PROBE_USER).append("period", 202401).append("category", "Food"), none)
+        );
+    }
+
+    private boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            for (Object value : document.values()) {
+                if (containsStage(value, stage)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                if (containsStage(value, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
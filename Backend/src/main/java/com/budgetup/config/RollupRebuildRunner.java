@@ -0,0 +1,30 @@
+package com.budgetup.config;
+
+import com.budgetup.service.RollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regenerates every user's analytics rollups from the raw transactions when the
+ * application is started with {@code --rebuild-rollups}, e.g.
+ * {@code mvn spring-boot:run -Dspring-boot.run.arguments=--rebuild-rollups}.
+ */
+@Component
+public class RollupRebuildRunner implements ApplicationRunner {
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("rebuild-rollups")) {
+            return;
+        }
+
+        System.out.println("=== Rebuilding analytics rollups ===");
+        int users = rollupService.rebuildAll();
+        System.out.println("=== Rebuilt analytics rollups for " + users + " users ===");
+    }
+}
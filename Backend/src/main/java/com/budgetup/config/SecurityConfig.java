@@ -1,8 +1,11 @@
 package com.budgetup.config;
 
+import com.budgetup.security.IdempotencyFilter;
 import com.budgetup.security.JwtAuthenticationEntryPoint;
 import com.budgetup.security.JwtAuthenticationFilter;
+import com.budgetup.security.RateLimitFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,9 +28,18 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    @Value("${app.auth.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -50,6 +62,9 @@ public class SecurityConfig {
                 );
 
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
+        // Keys are scoped to the user, so this runs once the token is verified
+        http.addFilterAfter(idempotencyFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
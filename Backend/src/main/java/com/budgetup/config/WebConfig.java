@@ -1,7 +1,45 @@
 package com.budgetup.config;
 
+import com.budgetup.service.ResourceVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-public class WebConfig {
+import static com.budgetup.service.ResourceVersions.Collection.BUDGETS;
+import static com.budgetup.service.ResourceVersions.Collection.GOALS;
+import static com.budgetup.service.ResourceVersions.Collection.TRANSACTIONS;
+import static com.budgetup.service.ResourceVersions.Collection.USER;
 
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${app.etag.enabled:false}")
+    private boolean etagEnabled;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!etagEnabled) {
+            return;
+        }
+
+        // Each route lists every collection its response is computed from
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersions, TRANSACTIONS))
+                .addPathPatterns("/api/transactions");
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersions, BUDGETS))
+                .addPathPatterns("/api/budgets", "/api/budgets/current");
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersions, GOALS))
+                .addPathPatterns("/api/goals", "/api/goals/**")
+                .excludePathPatterns("/api/goals/*/forecast");
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersions, GOALS, TRANSACTIONS))
+                .addPathPatterns("/api/goals/*/forecast");
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersions, TRANSACTIONS, BUDGETS, GOALS))
+                .addPathPatterns("/api/analytics/**");
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersions, USER))
+                .addPathPatterns("/api/user/**", "/api/profile");
+    }
 }
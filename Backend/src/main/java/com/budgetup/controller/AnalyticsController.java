@@ -1,14 +1,22 @@
 package com.budgetup.controller;
 
+import com.budgetup.model.Goal;
+import com.budgetup.payload.response.GoalResponse;
 import com.budgetup.security.CustomUserDetails;
+import com.budgetup.service.AnalyticsCache;
 import com.budgetup.service.AnalyticsService;
+import com.budgetup.service.DashboardService;
+import com.budgetup.service.RollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/analytics")
@@ -17,6 +25,15 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private AnalyticsCache analyticsCache;
+
+    @Autowired
+    private DashboardService dashboardService;
+
     @GetMapping("/overview")
     public ResponseEntity<?> getOverview(Authentication authentication,
                                           @RequestParam(defaultValue = "month") String period) {
@@ -27,9 +44,18 @@ public class AnalyticsController {
 
     @GetMapping("/spending-trends")
     public ResponseEntity<?> getSpendingTrends(Authentication authentication,
-                                                @RequestParam(defaultValue = "6") int months) {
+                                                @RequestParam(defaultValue = "6") int months,
+                                                @RequestParam(required = false) String from,
+                                                @RequestParam(required = false) String to) {
         String userId = getUserId(authentication);
-        List<Map<String, Object>> trends = analyticsService.getSpendingTrends(userId, months);
+        List<Map<String, Object>> trends;
+
+        if (from != null && to != null) {
+            trends = analyticsService.getSpendingTrends(userId, YearMonth.parse(from), YearMonth.parse(to));
+        } else {
+            trends = analyticsService.getSpendingTrends(userId, months);
+        }
+
         return ResponseEntity.ok(trends);
     }
 
@@ -41,6 +67,38 @@ public class AnalyticsController {
         return ResponseEntity.ok(insights);
     }
 
+    /**
+     * Overview, trends, category insights, current budgets and goals in one round trip
+     */
+    @GetMapping("/dashboard")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<?> getDashboard(Authentication authentication,
+                                          @RequestParam(defaultValue = "month") String period,
+                                          @RequestParam(defaultValue = "6") int months) {
+        String userId = getUserId(authentication);
+        Map<String, Object> dashboard = dashboardService.getDashboard(userId, period, months);
+
+        // Goals use the same shape as GET /api/goals
+        List<Goal> goals = (List<Goal>) dashboard.get("goals");
+        if (goals != null) {
+            dashboard.put("goals", goals.stream().map(GoalResponse::new).collect(Collectors.toList()));
+        }
+
+        return ResponseEntity.ok(dashboard);
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<?> rebuildRollups(Authentication authentication) {
+        String userId = getUserId(authentication);
+        int buckets = rollupService.rebuild(userId);
+        analyticsCache.evictUser(userId);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Analytics rollups rebuilt");
+        response.put("buckets", buckets);
+        return ResponseEntity.ok(response);
+    }
+
     private String getUserId(Authentication authentication) {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         return userDetails.getId();
@@ -1,5 +1,6 @@
 package com.budgetup.controller;
 
+import com.budgetup.exception.ServiceUnavailableException;
 import com.budgetup.model.User;
 import com.budgetup.payload.request.LoginRequest;
 import com.budgetup.payload.request.SignupRequest;
@@ -56,6 +57,9 @@ public class AuthController {
             System.out.println("=== AuthController: Signup success ===");
             return ResponseEntity.ok(response);
 
+        } catch (ServiceUnavailableException e) {
+            // Overload, not bad input: GlobalExceptionHandler answers 503 with Retry-After
+            throw e;
         } catch (RuntimeException e) {
             System.out.println("=== AuthController: Error - " + e.getMessage() + " ===");
             Map<String, String> error = new HashMap<>();
@@ -94,6 +98,9 @@ public class AuthController {
             System.out.println("=== AuthController: Login success ===");
             return ResponseEntity.ok(response);
 
+        } catch (ServiceUnavailableException e) {
+            // Overload, not bad input: GlobalExceptionHandler answers 503 with Retry-After
+            throw e;
         } catch (RuntimeException e) {
             System.out.println("=== AuthController: Error - " + e.getMessage() + " ===");
             Map<String, String> error = new HashMap<>();
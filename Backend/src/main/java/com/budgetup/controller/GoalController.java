@@ -1,8 +1,11 @@
 package com.budgetup.controller;
 
 import com.budgetup.model.Goal;
+import com.budgetup.model.GoalContribution;
 import com.budgetup.payload.request.GoalRequest;
+import com.budgetup.payload.response.GoalResponse;
 import com.budgetup.security.CustomUserDetails;
+import com.budgetup.service.GoalForecastService;
 import com.budgetup.service.GoalService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,23 +25,37 @@ public class GoalController {
     @Autowired
     private GoalService goalService;
 
+    @Autowired
+    private GoalForecastService goalForecastService;
+
     @GetMapping
     public ResponseEntity<?> getAllGoals(Authentication authentication) {
         String userId = getUserId(authentication);
         List<Goal> goals = goalService.getAllGoals(userId);
 
-        List<Map<String, Object>> result = goals.stream()
-                .map(this::goalToMap)
+        List<GoalResponse> result = goals.stream()
+                .map(GoalResponse::new)
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Progress, remaining amount, days to deadline and required monthly
+     * contribution for every goal, optionally filtered by status.
+     */
+    @GetMapping("/progress")
+    public ResponseEntity<?> getAllGoalProgress(Authentication authentication,
+                                                @RequestParam(required = false) String status) {
+        String userId = getUserId(authentication);
+        return ResponseEntity.ok(goalService.getAllGoalProgress(userId, status));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getGoal(Authentication authentication, @PathVariable String id) {
         String userId = getUserId(authentication);
         Goal goal = goalService.getGoalById(userId, id);
-        return ResponseEntity.ok(goalToMap(goal));
+        return ResponseEntity.ok(new GoalResponse(goal));
     }
 
     @GetMapping("/{id}/progress")
@@ -48,12 +65,39 @@ public class GoalController {
         return ResponseEntity.ok(progress);
     }
 
+    /**
+     * Simulated completion forecast: probability of reaching the target by the
+     * deadline and p10/p50/p90 completion dates.
+     */
+    @GetMapping("/{id}/forecast")
+    public ResponseEntity<?> getGoalForecast(Authentication authentication, @PathVariable String id) {
+        String userId = getUserId(authentication);
+        Map<String, Object> forecast = goalForecastService.forecast(userId, id);
+        return ResponseEntity.ok(forecast);
+    }
+
+    /**
+     * Contribution history of a goal, oldest first, with the running balance
+     * after each contribution.
+     */
+    @GetMapping("/{id}/contributions")
+    public ResponseEntity<?> getContributions(Authentication authentication, @PathVariable String id) {
+        String userId = getUserId(authentication);
+        List<GoalContribution> contributions = goalService.getContributions(userId, id);
+
+        List<Map<String, Object>> result = contributions.stream()
+                .map(GoalController::contributionToMap)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping
     public ResponseEntity<?> createGoal(Authentication authentication,
                                          @Valid @RequestBody GoalRequest request) {
         String userId = getUserId(authentication);
         Goal goal = goalService.createGoal(userId, request);
-        return ResponseEntity.ok(goalToMap(goal));
+        return ResponseEntity.ok(new GoalResponse(goal));
     }
 
     @PutMapping("/{id}")
@@ -62,7 +106,7 @@ public class GoalController {
                                          @RequestBody GoalRequest request) {
         String userId = getUserId(authentication);
         Goal goal = goalService.updateGoal(userId, id, request);
-        return ResponseEntity.ok(goalToMap(goal));
+        return ResponseEntity.ok(new GoalResponse(goal));
     }
 
     @PostMapping("/{id}/contribute")
@@ -71,7 +115,7 @@ public class GoalController {
                                               @RequestBody Map<String, Double> body) {
         String userId = getUserId(authentication);
         Goal goal = goalService.addContribution(userId, id, body.get("amount"));
-        return ResponseEntity.ok(goalToMap(goal));
+        return ResponseEntity.ok(new GoalResponse(goal));
     }
 
     @DeleteMapping("/{id}")
@@ -89,19 +133,13 @@ public class GoalController {
         return userDetails.getId();
     }
 
-    private Map<String, Object> goalToMap(Goal g) {
+    private static Map<String, Object> contributionToMap(GoalContribution c) {
         Map<String, Object> map = new HashMap<>();
-        map.put("_id", g.getId());
-        map.put("id", g.getId());
-        map.put("userId", g.getUserId());
-        map.put("name", g.getName());
-        map.put("description", g.getDescription());
-        map.put("targetAmount", g.getTargetAmount());
-        map.put("currentAmount", g.getCurrentAmount());
-        map.put("category", g.getCategory());
-        map.put("status", g.getStatus());
-        map.put("deadline", g.getDeadline() != null ? g.getDeadline().toString() : null);
-        map.put("createdAt", g.getCreatedAt() != null ? g.getCreatedAt().toString() : null);
+        map.put("id", c.getId());
+        map.put("goalId", c.getGoalId());
+        map.put("amount", c.getAmount());
+        map.put("balanceAfter", c.getBalanceAfter());
+        map.put("createdAt", c.getCreatedAt() != null ? c.getCreatedAt().toString() : null);
         return map;
     }
 }
@@ -1,6 +1,7 @@
 package com.budgetup.controller;
 
 import com.budgetup.model.User;
+import com.budgetup.payload.response.ProfileResponse;
 import com.budgetup.security.CustomUserDetails;
 import com.budgetup.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,7 +28,7 @@ public class ProfileController {
         User user = userService.getProfile(userId);
 
         Map<String, Object> response = new HashMap<>();
-        response.put("data", profileToMap(user));
+        response.put("data", new ProfileResponse(user));
         return ResponseEntity.ok(response);
     }
 
@@ -42,7 +43,7 @@ public class ProfileController {
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Profile updated!");
-        response.put("data", profileToMap(user));
+        response.put("data", new ProfileResponse(user));
         return ResponseEntity.ok(response);
     }
 
@@ -78,30 +79,4 @@ public class ProfileController {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         return userDetails.getId();
     }
-
-    private Map<String, Object> profileToMap(User user) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", user.getId());
-        map.put("email", user.getEmail());
-        map.put("name", user.getName());
-        map.put("fullName", user.getFullName());
-        map.put("displayName", user.getName());
-        map.put("firstName", user.getFullName() != null && user.getFullName().contains(" ")
-                ? user.getFullName().split(" ")[0] : user.getName());
-        map.put("lastName", user.getFullName() != null && user.getFullName().contains(" ")
-                ? user.getFullName().substring(user.getFullName().indexOf(" ") + 1) : "");
-        map.put("profilePicUrl", user.getProfilePicture());
-        map.put("authProvider", user.getAuthProvider() != null ? user.getAuthProvider().name().toLowerCase() : "local");
-        map.put("hasSetPassword", user.getIsPasswordSet() != null ? user.getIsPasswordSet() : false);
-        map.put("country", user.getCountry());
-        map.put("flag", user.getFlag());
-        map.put("currency", user.getCurrency());
-        map.put("occupation", user.getOccupation());
-        map.put("monthlyIncome", user.getMonthlyIncome());
-        map.put("pocketMoney", user.getPocketMoney());
-        map.put("incomeFrequency", user.getIncomeFrequency());
-        map.put("financialGoals", user.getFinancialGoals());
-        map.put("isOnboarded", user.getIsOnboarded());
-        return map;
-    }
 }
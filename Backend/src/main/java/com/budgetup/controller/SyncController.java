@@ -0,0 +1,63 @@
+package com.budgetup.controller;
+
+import com.budgetup.model.Tombstone;
+import com.budgetup.payload.response.GoalResponse;
+import com.budgetup.payload.response.TransactionResponse;
+import com.budgetup.security.CustomUserDetails;
+import com.budgetup.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    /**
+     * Transactions, budgets and goals changed after version {@code since}, plus
+     * the ids of those deleted since then. Pass the returned version as
+     * {@code since} next time; omit it for a full snapshot.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(Authentication authentication,
+                                        @RequestParam(required = false) Long since) {
+        String userId = getUserId(authentication);
+        SyncService.Changes changes = syncService.getChanges(userId, since);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("version", changes.version());
+        response.put("transactions", changes.transactions().stream()
+                .map(TransactionResponse::new)
+                .collect(Collectors.toList()));
+        response.put("budgets", changes.budgets());
+        response.put("goals", changes.goals().stream()
+                .map(GoalResponse::new)
+                .collect(Collectors.toList()));
+        response.put("deleted", changes.deleted().stream()
+                .map(SyncController::tombstoneToMap)
+                .collect(Collectors.toList()));
+        return ResponseEntity.ok(response);
+    }
+
+    private String getUserId(Authentication authentication) {
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        return userDetails.getId();
+    }
+
+    private static Map<String, Object> tombstoneToMap(Tombstone t) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("type", t.getEntity());
+        map.put("id", t.getEntityId());
+        map.put("version", t.getSyncVersion());
+        return map;
+    }
+}
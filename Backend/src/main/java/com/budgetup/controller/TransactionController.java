@@ -1,19 +1,29 @@
 package com.budgetup.controller;
 
 import com.budgetup.model.Transaction;
+import com.budgetup.payload.request.TransactionListRequest;
 import com.budgetup.payload.request.TransactionRequest;
+import com.budgetup.payload.response.TransactionResponse;
 import com.budgetup.security.CustomUserDetails;
+import com.budgetup.service.TransactionExportService;
+import com.budgetup.service.TransactionImportService;
 import com.budgetup.service.TransactionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -22,22 +32,89 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
     /**
-     * Get all transactions
+     * Get transactions. With limit, cursor or any filter parameter the result is
+     * one keyset page: { "transactions": [...], "next": cursor-or-null }.
+     * Without parameters the full list is returned as before.
      */
     @GetMapping
-    public ResponseEntity<?> getAllTransactions(Authentication authentication) {
+    public ResponseEntity<?> getAllTransactions(Authentication authentication,
+                                                TransactionListRequest listRequest) {
         String userId = getUserId(authentication);
+
+        if (listRequest.isPaged()) {
+            TransactionService.TransactionPage page = transactionService.getTransactionPage(userId, listRequest);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("transactions", page.transactions().stream()
+                    .map(TransactionResponse::new)
+                    .collect(Collectors.toList()));
+            response.put("next", page.next());
+            return ResponseEntity.ok(response);
+        }
+
         List<Transaction> transactions = transactionService.getAllTransactions(userId);
 
         // Convert to frontend-compatible format
-        List<Map<String, Object>> result = transactions.stream()
-                .map(this::transactionToMap)
+        List<TransactionResponse> result = transactions.stream()
+                .map(TransactionResponse::new)
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Export transactions as CSV or NDJSON, streamed row by row from the database.
+     * Compressed with gzip when the client sends Accept-Encoding: gzip or gzip=true.
+     */
+    @GetMapping("/export")
+    public void exportTransactions(Authentication authentication,
+                                   @RequestParam(defaultValue = "csv") String format,
+                                   @RequestParam(required = false) String from,
+                                   @RequestParam(required = false) String to,
+                                   @RequestParam(defaultValue = "false") boolean gzip,
+                                   @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding,
+                                   HttpServletResponse response) throws IOException {
+        String userId = getUserId(authentication);
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            throw new RuntimeException("Unsupported export format: " + format);
+        }
+
+        LocalDate fromDate = from != null ? LocalDate.parse(from) : null;
+        LocalDate toDate = to != null ? LocalDate.parse(to) : null;
+
+        response.setContentType(ndjson ? "application/x-ndjson" : "text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"transactions." + (ndjson ? "ndjson" : "csv") + "\"");
+
+        OutputStream out = response.getOutputStream();
+        boolean compress = gzip || TransactionExportService.acceptsGzip(acceptEncoding);
+        if (compress) {
+            response.setHeader("Content-Encoding", "gzip");
+            response.addHeader("Vary", "Accept-Encoding");
+            out = new GZIPOutputStream(out, 8192);
+        }
+
+        if (ndjson) {
+            transactionExportService.exportNdjson(userId, fromDate, toDate, out);
+        } else {
+            transactionExportService.exportCsv(userId, fromDate, toDate, out);
+        }
+
+        if (out instanceof GZIPOutputStream gzipOut) {
+            gzipOut.finish();
+        }
+        out.flush();
+    }
+
     /**
      * Create transaction
      */
@@ -46,7 +123,27 @@ public class TransactionController {
                                                 @Valid @RequestBody TransactionRequest request) {
         String userId = getUserId(authentication);
         Transaction transaction = transactionService.createTransaction(userId, request);
-        return ResponseEntity.ok(transactionToMap(transaction));
+        return ResponseEntity.ok(new TransactionResponse(transaction));
+    }
+
+    /**
+     * Bulk import from a CSV file (text/csv, header row with column names) or a
+     * JSON array of transactions. Valid rows are imported; invalid rows are
+     * reported by row number.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/json"})
+    public ResponseEntity<?> importTransactions(Authentication authentication,
+                                                HttpServletRequest request) throws IOException {
+        String userId = getUserId(authentication);
+
+        TransactionImportService.ImportResult result;
+        if (request.getContentType().startsWith("text/csv")) {
+            result = transactionImportService.importCsv(userId, request.getInputStream());
+        } else {
+            result = transactionImportService.importJson(userId, request.getInputStream());
+        }
+
+        return ResponseEntity.ok(result);
     }
 
     /**
@@ -58,7 +155,7 @@ public class TransactionController {
                                                 @RequestBody TransactionRequest request) {
         String userId = getUserId(authentication);
         Transaction transaction = transactionService.updateTransaction(userId, id, request);
-        return ResponseEntity.ok(transactionToMap(transaction));
+        return ResponseEntity.ok(new TransactionResponse(transaction));
     }
 
     /**
@@ -79,20 +176,4 @@ public class TransactionController {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         return userDetails.getId();
     }
-
-    private Map<String, Object> transactionToMap(Transaction t) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("_id", t.getId());
-        map.put("id", t.getId());
-        map.put("userId", t.getUserId());
-        map.put("type", t.getType());
-        map.put("amount", t.getAmount());
-        map.put("category", t.getCategory());
-        map.put("merchant", t.getMerchant());
-        map.put("description", t.getDescription());
-        map.put("date", t.getDate() != null ? t.getDate().toString() : null);
-        map.put("isRecurring", t.getIsRecurring());
-        map.put("createdAt", t.getCreatedAt() != null ? t.getCreatedAt().toString() : null);
-        return map;
-    }
 }
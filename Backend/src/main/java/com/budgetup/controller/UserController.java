@@ -1,6 +1,7 @@
 package com.budgetup.controller;
 
 import com.budgetup.model.User;
+import com.budgetup.payload.response.UserResponse;
 import com.budgetup.security.CustomUserDetails;
 import com.budgetup.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,7 +40,7 @@ public class UserController {
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Onboarding completed successfully!");
-        response.put("user", userToMap(user));
+        response.put("user", new UserResponse(user));
         return ResponseEntity.ok(response);
     }
 
@@ -54,7 +55,7 @@ public class UserController {
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Financial settings updated!");
-        response.put("data", userToMap(user));
+        response.put("data", new UserResponse(user));
         return ResponseEntity.ok(response);
     }
 
@@ -68,7 +69,7 @@ public class UserController {
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("profile", userToMap(user));
+        response.put("profile", new UserResponse(user));
         return ResponseEntity.ok(response);
     }
 
@@ -76,22 +77,4 @@ public class UserController {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         return userDetails.getId();
     }
-
-    private Map<String, Object> userToMap(User user) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", user.getId());
-        map.put("email", user.getEmail());
-        map.put("name", user.getName());
-        map.put("fullName", user.getFullName());
-        map.put("country", user.getCountry());
-        map.put("flag", user.getFlag());
-        map.put("currency", user.getCurrency());
-        map.put("occupation", user.getOccupation());
-        map.put("monthlyIncome", user.getMonthlyIncome());
-        map.put("pocketMoney", user.getPocketMoney());
-        map.put("incomeFrequency", user.getIncomeFrequency());
-        map.put("financialGoals", user.getFinancialGoals());
-        map.put("isOnboarded", user.getIsOnboarded());
-        return map;
-    }
 }
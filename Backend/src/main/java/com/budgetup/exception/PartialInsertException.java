@@ -0,0 +1,34 @@
+package com.budgetup.exception;
+
+import com.budgetup.model.Transaction;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thrown when a batch insert did not complete cleanly. {@link #getInserted()}
+ * are the rows that were stored, {@link #getFailures()} maps the index of each
+ * row that was not stored to its error. A failure after the rows were stored,
+ * such as updating rollups, is the cause with no failures listed.
+ */
+public class PartialInsertException extends RuntimeException {
+
+    private final List<Transaction> inserted;
+
+    private final Map<Integer, String> failures;
+
+    public PartialInsertException(String message, List<Transaction> inserted,
+                                  Map<Integer, String> failures, Throwable cause) {
+        super(message, cause);
+        this.inserted = inserted;
+        this.failures = failures;
+    }
+
+    public List<Transaction> getInserted() {
+        return inserted;
+    }
+
+    public Map<Integer, String> getFailures() {
+        return failures;
+    }
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -12,6 +14,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "budgets")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_year_month_category", def = "{'userId': 1, 'year': 1, 'month': 1, 'category': 1}"),
+        @CompoundIndex(name = "user_syncVersion", def = "{'userId': 1, 'syncVersion': 1}")
+})
 public class Budget {
 
     @Id
@@ -32,4 +38,6 @@ public class Budget {
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
+
+    private Long syncVersion; // per-user change version, see SyncService
 }
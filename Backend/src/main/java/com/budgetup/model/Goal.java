@@ -1,18 +1,27 @@
 package com.budgetup.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "goals")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_createdAt", def = "{'userId': 1, 'createdAt': -1}"),
+        @CompoundIndex(name = "user_status", def = "{'userId': 1, 'status': 1}"),
+        @CompoundIndex(name = "user_syncVersion", def = "{'userId': 1, 'syncVersion': 1}")
+})
 public class Goal {
 
     @Id
@@ -37,4 +46,9 @@ public class Goal {
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    private Long syncVersion; // per-user change version, see SyncService
+
+    @JsonIgnore
+    private List<String> appliedContributions; // ids of the latest contributions added, so none is added twice
+}
@@ -0,0 +1,36 @@
+package com.budgetup.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry in a goal's contribution ledger. {@code balanceAfter} is the goal's
+ * current amount right after this contribution was applied; it is null while
+ * the entry is written but not yet applied to the goal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "goal_contributions")
+@CompoundIndex(name = "goal_createdAt", def = "{'goalId': 1, 'createdAt': 1}")
+public class GoalContribution {
+
+    @Id
+    private String id;
+
+    private String goalId;
+
+    private String userId;
+
+    private Double amount;
+
+    private Double balanceAfter;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package com.budgetup.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Outcome of a request sent with an Idempotency-Key. The id is the user's id
+ * and the key; status is null while the first request is still running,
+ * and token identifies the claim of the request running it.
+ * Mongo removes the record once {@code expiresAt} has passed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    private String id;
+
+    private String token;
+
+    private String fingerprint;
+
+    private Integer status;
+
+    private String contentType;
+
+    private byte[] body;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+}
@@ -0,0 +1,44 @@
+package com.budgetup.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running income/expense totals for one user, month and category. Kept in
+ * step with the transactions collection by {@code RollupService} so that
+ * analytics reads a handful of these instead of raw transactions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "monthly_rollups")
+@CompoundIndex(name = "user_period_category", def = "{'userId': 1, 'period': 1, 'category': 1}", unique = true)
+public class MonthlyRollup {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private Integer period; // year * 100 + month, e.g. 202403
+
+    private Integer year;
+
+    private Integer month;
+
+    private String category;
+
+    private Double income;
+
+    private Double expense;
+
+    private Long count;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,27 @@
+package com.budgetup.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a server-side transaction aggregation: the summed amount and
+ * count of a single transaction type and category in one calendar month.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyTotal {
+
+    private int year;
+
+    private int month;
+
+    private String type; // "income" or "expense"
+
+    private String category;
+
+    private double total;
+
+    private long count;
+}
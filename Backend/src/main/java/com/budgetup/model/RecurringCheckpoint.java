@@ -0,0 +1,34 @@
+package com.budgetup.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Lease and progress of one partition of the recurring transaction run. The id
+ * is the partition number; users belong to the partition of their id's hash.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "recurring_checkpoints")
+public class RecurringCheckpoint {
+
+    @Id
+    private Integer id;
+
+    private String owner; // instance holding the lease
+
+    private Date leaseUntil;
+
+    private LocalDate runDate; // day the current or last run generated occurrences up to
+
+    private String lastUserId; // every user up to this one is done for runDate
+
+    private Boolean completed; // the run for runDate went through all users
+}
@@ -0,0 +1,41 @@
+package com.budgetup.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Last change version handed out to a user, and the reservations whose writes
+ * have not landed yet. The id is the user's id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "sync_counters")
+public class SyncCounter {
+
+    @Id
+    private String id;
+
+    private Long version;
+
+    private List<Pending> pending;
+
+    /**
+     * A reservation starting at {@code first}, given up on after {@code until}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pending {
+
+        private Long first;
+
+        private Date until;
+    }
+}
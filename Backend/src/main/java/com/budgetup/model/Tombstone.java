@@ -0,0 +1,35 @@
+package com.budgetup.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind when a transaction, budget or goal is deleted, so sync
+ * clients learn about the delete.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "tombstones")
+@CompoundIndex(name = "user_syncVersion", def = "{'userId': 1, 'syncVersion': 1}")
+public class Tombstone {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String entity; // "transaction", "budget" or "goal"
+
+    private String entityId;
+
+    private Long syncVersion;
+
+    private LocalDateTime deletedAt;
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -13,6 +15,19 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "transactions")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_date_id", def = "{'userId': 1, 'date': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_type_date_id", def = "{'userId': 1, 'type': 1, 'date': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_category_date_id", def = "{'userId': 1, 'category': 1, 'date': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_syncVersion", def = "{'userId': 1, 'syncVersion': 1}"),
+        // Keys carry the partition hash and next date, so a node fetches only its own due templates
+        @CompoundIndex(name = "recurring_user_id",
+                def = "{'userId': 1, '_id': 1, 'recurringHash': 1, 'recurringNextDate': 1}",
+                partialFilter = "{'isRecurring': true}"),
+        // At most one generated occurrence per template and date
+        @CompoundIndex(name = "recurringTemplate_date", def = "{'recurringTemplateId': 1, 'date': 1}",
+                unique = true, partialFilter = "{'recurringTemplateId': {'$exists': true}}")
+})
 public class Transaction {
 
     @Id
@@ -34,7 +49,15 @@ public class Transaction {
 
     private Boolean isRecurring;
 
+    private LocalDate recurringNextDate; // on a recurring transaction, the next occurrence still to generate
+
+    private Integer recurringHash; // on a recurring transaction, picks its partition, see RecurringTransactionService
+
+    private String recurringTemplateId; // on a generated occurrence, the recurring transaction it came from
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
+
+    private Long syncVersion; // per-user change version, see SyncService
 }
@@ -0,0 +1,29 @@
+package com.budgetup.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Optional server-side filters for listing a user's transactions. Null fields
+ * are not applied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionFilter {
+
+    private String type;
+
+    private String category;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Double minAmount;
+
+    private Double maxAmount;
+}
@@ -0,0 +1,49 @@
+package com.budgetup.payload.request;
+
+/**
+ * Query parameters for the paginated transaction listing. Bound from the
+ * query string, e.g. {@code ?limit=50&type=expense&from=2024-01-01}.
+ */
+public class TransactionListRequest {
+
+    private Integer limit;
+    private String cursor;
+    private String type;
+    private String category;
+    private String from;
+    private String to;
+    private Double minAmount;
+    private Double maxAmount;
+
+    public TransactionListRequest() {}
+
+    // True when the caller asked for anything beyond the plain full listing
+    public boolean isPaged() {
+        return limit != null || cursor != null || type != null || category != null
+                || from != null || to != null || minAmount != null || maxAmount != null;
+    }
+
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+
+    public String getTo() { return to; }
+    public void setTo(String to) { this.to = to; }
+
+    public Double getMinAmount() { return minAmount; }
+    public void setMinAmount(Double minAmount) { this.minAmount = minAmount; }
+
+    public Double getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(Double maxAmount) { this.maxAmount = maxAmount; }
+}
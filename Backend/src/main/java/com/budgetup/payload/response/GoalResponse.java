@@ -1,5 +1,58 @@
 package com.budgetup.payload.response;
 
-public class GoalResponse {
-    // Marker class - goals are returned as model objects directly
+import com.budgetup.model.Goal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+import static com.budgetup.payload.response.ResponseFields.*;
+
+/**
+ * JSON view of a goal, written field by field straight from the entity.
+ * Field order matches the HashMap-based output clients already parse.
+ */
+@JsonSerialize(using = GoalResponse.Serializer.class)
+public record GoalResponse(Goal goal) {
+
+    static class Serializer extends StdSerializer<GoalResponse> {
+
+        private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+        private static final SerializedString TARGET_AMOUNT = new SerializedString("targetAmount");
+        private static final SerializedString NAME = new SerializedString("name");
+        private static final SerializedString DESCRIPTION = new SerializedString("description");
+        private static final SerializedString CURRENT_AMOUNT = new SerializedString("currentAmount");
+        private static final SerializedString _ID = new SerializedString("_id");
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString CATEGORY = new SerializedString("category");
+        private static final SerializedString DEADLINE = new SerializedString("deadline");
+        private static final SerializedString USER_ID = new SerializedString("userId");
+        private static final SerializedString STATUS = new SerializedString("status");
+
+        Serializer() {
+            super(GoalResponse.class);
+        }
+
+        @Override
+        public void serialize(GoalResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            Goal g = value.goal();
+            gen.writeStartObject();
+            writeString(gen, CREATED_AT, g.getCreatedAt());
+            writeNumber(gen, TARGET_AMOUNT, g.getTargetAmount());
+            writeString(gen, NAME, g.getName());
+            writeString(gen, DESCRIPTION, g.getDescription());
+            writeNumber(gen, CURRENT_AMOUNT, g.getCurrentAmount());
+            writeString(gen, _ID, g.getId());
+            writeString(gen, ID, g.getId());
+            writeString(gen, CATEGORY, g.getCategory());
+            writeString(gen, DEADLINE, g.getDeadline());
+            writeString(gen, USER_ID, g.getUserId());
+            writeString(gen, STATUS, g.getStatus());
+            gen.writeEndObject();
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.budgetup.payload.response;
+
+import com.budgetup.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+import static com.budgetup.payload.response.ResponseFields.*;
+
+/**
+ * JSON view of a user's profile page, including the derived display and split
+ * name fields. Field order matches the HashMap-based output clients already parse.
+ */
+@JsonSerialize(using = ProfileResponse.Serializer.class)
+public record ProfileResponse(User user) {
+
+    static class Serializer extends StdSerializer<ProfileResponse> {
+
+        private static final SerializedString LAST_NAME = new SerializedString("lastName");
+        private static final SerializedString COUNTRY = new SerializedString("country");
+        private static final SerializedString FLAG = new SerializedString("flag");
+        private static final SerializedString OCCUPATION = new SerializedString("occupation");
+        private static final SerializedString DISPLAY_NAME = new SerializedString("displayName");
+        private static final SerializedString FULL_NAME = new SerializedString("fullName");
+        private static final SerializedString FINANCIAL_GOALS = new SerializedString("financialGoals");
+        private static final SerializedString INCOME_FREQUENCY = new SerializedString("incomeFrequency");
+        private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+        private static final SerializedString AUTH_PROVIDER = new SerializedString("authProvider");
+        private static final SerializedString HAS_SET_PASSWORD = new SerializedString("hasSetPassword");
+        private static final SerializedString PROFILE_PIC_URL = new SerializedString("profilePicUrl");
+        private static final SerializedString NAME = new SerializedString("name");
+        private static final SerializedString POCKET_MONEY = new SerializedString("pocketMoney");
+        private static final SerializedString CURRENCY = new SerializedString("currency");
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString EMAIL = new SerializedString("email");
+        private static final SerializedString MONTHLY_INCOME = new SerializedString("monthlyIncome");
+        private static final SerializedString IS_ONBOARDED = new SerializedString("isOnboarded");
+
+        Serializer() {
+            super(ProfileResponse.class);
+        }
+
+        @Override
+        public void serialize(ProfileResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            User user = value.user();
+            String fullName = user.getFullName();
+            boolean splitName = fullName != null && fullName.contains(" ");
+
+            gen.writeStartObject();
+            writeString(gen, LAST_NAME, splitName ? fullName.substring(fullName.indexOf(" ") + 1) : "");
+            writeString(gen, COUNTRY, user.getCountry());
+            writeString(gen, FLAG, user.getFlag());
+            writeString(gen, OCCUPATION, user.getOccupation());
+            writeString(gen, DISPLAY_NAME, user.getName());
+            writeString(gen, FULL_NAME, fullName);
+            writeStrings(gen, FINANCIAL_GOALS, user.getFinancialGoals());
+            writeString(gen, INCOME_FREQUENCY, user.getIncomeFrequency());
+            writeString(gen, FIRST_NAME, splitName ? fullName.split(" ")[0] : user.getName());
+            writeString(gen, AUTH_PROVIDER,
+                    user.getAuthProvider() != null ? user.getAuthProvider().name().toLowerCase() : "local");
+            writeBoolean(gen, HAS_SET_PASSWORD, user.getIsPasswordSet() != null ? user.getIsPasswordSet() : false);
+            writeString(gen, PROFILE_PIC_URL, user.getProfilePicture());
+            writeString(gen, NAME, user.getName());
+            writeNumber(gen, POCKET_MONEY, user.getPocketMoney());
+            writeString(gen, CURRENCY, user.getCurrency());
+            writeString(gen, ID, user.getId());
+            writeString(gen, EMAIL, user.getEmail());
+            writeNumber(gen, MONTHLY_INCOME, user.getMonthlyIncome());
+            writeBoolean(gen, IS_ONBOARDED, user.getIsOnboarded());
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.budgetup.payload.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Null-safe field writers shared by the response serializers. Each writes the
+ * same JSON Jackson produced for the equivalent Map entry.
+ */
+final class ResponseFields {
+
+    private ResponseFields() {
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, Object value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value.toString());
+        }
+    }
+
+    static void writeNumber(JsonGenerator gen, SerializableString name, Double value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeBoolean(JsonGenerator gen, SerializableString name, Boolean value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeBoolean(value);
+        }
+    }
+
+    static void writeStrings(JsonGenerator gen, SerializableString name, List<String> values) throws IOException {
+        gen.writeFieldName(name);
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray();
+        for (String value : values) {
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(value);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -1,5 +1,58 @@
 package com.budgetup.payload.response;
 
-public class TransactionResponse {
-    // Marker class - transactions are returned as model objects directly
+import com.budgetup.model.Transaction;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+import static com.budgetup.payload.response.ResponseFields.*;
+
+/**
+ * JSON view of a transaction, written field by field straight from the entity.
+ * Field order matches the HashMap-based output clients already parse.
+ */
+@JsonSerialize(using = TransactionResponse.Serializer.class)
+public record TransactionResponse(Transaction transaction) {
+
+    static class Serializer extends StdSerializer<TransactionResponse> {
+
+        private static final SerializedString DATE = new SerializedString("date");
+        private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+        private static final SerializedString AMOUNT = new SerializedString("amount");
+        private static final SerializedString MERCHANT = new SerializedString("merchant");
+        private static final SerializedString DESCRIPTION = new SerializedString("description");
+        private static final SerializedString IS_RECURRING = new SerializedString("isRecurring");
+        private static final SerializedString _ID = new SerializedString("_id");
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString TYPE = new SerializedString("type");
+        private static final SerializedString CATEGORY = new SerializedString("category");
+        private static final SerializedString USER_ID = new SerializedString("userId");
+
+        Serializer() {
+            super(TransactionResponse.class);
+        }
+
+        @Override
+        public void serialize(TransactionResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            Transaction t = value.transaction();
+            gen.writeStartObject();
+            writeString(gen, DATE, t.getDate());
+            writeString(gen, CREATED_AT, t.getCreatedAt());
+            writeNumber(gen, AMOUNT, t.getAmount());
+            writeString(gen, MERCHANT, t.getMerchant());
+            writeString(gen, DESCRIPTION, t.getDescription());
+            writeBoolean(gen, IS_RECURRING, t.getIsRecurring());
+            writeString(gen, _ID, t.getId());
+            writeString(gen, ID, t.getId());
+            writeString(gen, TYPE, t.getType());
+            writeString(gen, CATEGORY, t.getCategory());
+            writeString(gen, USER_ID, t.getUserId());
+            gen.writeEndObject();
+        }
+    }
 }
@@ -1,5 +1,62 @@
 package com.budgetup.payload.response;
 
-public class UserResponse {
-    // Marker class - user data is returned as Map objects directly
+import com.budgetup.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+import static com.budgetup.payload.response.ResponseFields.*;
+
+/**
+ * JSON view of a user's account and onboarding data. Field order matches the
+ * HashMap-based output clients already parse.
+ */
+@JsonSerialize(using = UserResponse.Serializer.class)
+public record UserResponse(User user) {
+
+    static class Serializer extends StdSerializer<UserResponse> {
+
+        private static final SerializedString COUNTRY = new SerializedString("country");
+        private static final SerializedString FLAG = new SerializedString("flag");
+        private static final SerializedString OCCUPATION = new SerializedString("occupation");
+        private static final SerializedString FULL_NAME = new SerializedString("fullName");
+        private static final SerializedString FINANCIAL_GOALS = new SerializedString("financialGoals");
+        private static final SerializedString INCOME_FREQUENCY = new SerializedString("incomeFrequency");
+        private static final SerializedString NAME = new SerializedString("name");
+        private static final SerializedString POCKET_MONEY = new SerializedString("pocketMoney");
+        private static final SerializedString CURRENCY = new SerializedString("currency");
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString EMAIL = new SerializedString("email");
+        private static final SerializedString MONTHLY_INCOME = new SerializedString("monthlyIncome");
+        private static final SerializedString IS_ONBOARDED = new SerializedString("isOnboarded");
+
+        Serializer() {
+            super(UserResponse.class);
+        }
+
+        @Override
+        public void serialize(UserResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            User user = value.user();
+            gen.writeStartObject();
+            writeString(gen, COUNTRY, user.getCountry());
+            writeString(gen, FLAG, user.getFlag());
+            writeString(gen, OCCUPATION, user.getOccupation());
+            writeString(gen, FULL_NAME, user.getFullName());
+            writeStrings(gen, FINANCIAL_GOALS, user.getFinancialGoals());
+            writeString(gen, INCOME_FREQUENCY, user.getIncomeFrequency());
+            writeString(gen, NAME, user.getName());
+            writeNumber(gen, POCKET_MONEY, user.getPocketMoney());
+            writeString(gen, CURRENCY, user.getCurrency());
+            writeString(gen, ID, user.getId());
+            writeString(gen, EMAIL, user.getEmail());
+            writeNumber(gen, MONTHLY_INCOME, user.getMonthlyIncome());
+            writeBoolean(gen, IS_ONBOARDED, user.getIsOnboarded());
+            gen.writeEndObject();
+        }
+    }
 }
@@ -7,7 +7,8 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface BudgetRepository extends MongoRepository<Budget, String> {
+public interface BudgetRepository extends MongoRepository<Budget, String>, BudgetRepositoryCustom {
     List<Budget> findByUserId(String userId);
     List<Budget> findByUserIdAndMonthAndYear(String userId, Integer month, Integer year);
+    List<Budget> findByUserIdAndSyncVersionGreaterThanOrderBySyncVersionAsc(String userId, Long since);
 }
@@ -0,0 +1,36 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.Budget;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+
+public interface BudgetRepositoryCustom {
+
+    /**
+     * Atomically adds {@code delta} to the spent amount of the user's budget for
+     * the given category and month, if one exists, and raises its sync version
+     * to {@code syncVersion}.
+     */
+    void incrementSpent(String userId, String category, int month, int year, double delta, Long syncVersion);
+
+    /**
+     * Applies many spent increments in one unordered bulk write. Each element
+     * carries the budget key, in {@code spent} the amount to add and in
+     * {@code syncVersion} the version of the change.
+     */
+    void incrementSpentAll(Collection<Budget> deltas);
+
+    /**
+     * Applies {@code update} to the user's budget with this id in one
+     * findAndModify. Returns the budget as it was before the update, or null if
+     * the user has no budget with this id.
+     */
+    Budget findAndUpdateOwned(String userId, String id, Update update);
+
+    /**
+     * Deletes the user's budget with this id. Returns false if the user has no
+     * budget with this id.
+     */
+    boolean deleteOwned(String userId, String id);
+}
@@ -0,0 +1,68 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.Budget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public class BudgetRepositoryImpl implements BudgetRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementSpent(String userId, String category, int month, int year, double delta, Long syncVersion) {
+        mongoTemplate.updateMulti(budgetFor(userId, category, month, year), spent(delta, syncVersion), Budget.class);
+    }
+
+    @Override
+    public void incrementSpentAll(Collection<Budget> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Budget.class);
+        for (Budget d : deltas) {
+            bulk.updateMulti(budgetFor(d.getUserId(), d.getCategory(), d.getMonth(), d.getYear()), spent(d.getSpent(), d.getSyncVersion()));
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public Budget findAndUpdateOwned(String userId, String id, Update update) {
+        return mongoTemplate.findAndModify(owned(userId, id), update, Budget.class);
+    }
+
+    @Override
+    public boolean deleteOwned(String userId, String id) {
+        return mongoTemplate.remove(owned(userId, id), Budget.class).getDeletedCount() > 0;
+    }
+
+    private Query owned(String userId, String id) {
+        return new Query(Criteria.where("id").is(id).and("userId").is(userId));
+    }
+
+    private Query budgetFor(String userId, String category, int month, int year) {
+        return new Query(Criteria.where("userId").is(userId)
+                .and("month").is(month)
+                .and("year").is(year)
+                .and("category").is(category));
+    }
+
+    private Update spent(double delta, Long syncVersion) {
+        Update update = new Update()
+                .inc("spent", delta)
+                .set("updatedAt", LocalDateTime.now());
+        // $max keeps the version monotonic when increments land out of order
+        if (syncVersion != null) {
+            update.max("syncVersion", syncVersion);
+        }
+        return update;
+    }
+}
@@ -0,0 +1,13 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.GoalContribution;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GoalContributionRepository extends MongoRepository<GoalContribution, String> {
+    List<GoalContribution> findByGoalIdOrderByCreatedAtAsc(String goalId);
+    void deleteByGoalId(String goalId);
+}
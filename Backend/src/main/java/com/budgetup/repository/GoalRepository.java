@@ -7,7 +7,8 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface GoalRepository extends MongoRepository<Goal, String> {
+public interface GoalRepository extends MongoRepository<Goal, String>, GoalRepositoryCustom {
     List<Goal> findByUserIdOrderByCreatedAtDesc(String userId);
     List<Goal> findByUserIdAndStatus(String userId, String status);
+    List<Goal> findByUserIdAndSyncVersionGreaterThanOrderBySyncVersionAsc(String userId, Long since);
 }
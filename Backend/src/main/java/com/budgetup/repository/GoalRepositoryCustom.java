@@ -0,0 +1,29 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.Goal;
+
+import java.util.Map;
+
+public interface GoalRepositoryCustom {
+
+    /**
+     * Atomically adds {@code amount} to the goal's current amount and marks it
+     * ACHIEVED once the target is reached. Adding the same
+     * {@code contributionId} again changes nothing. Returns the updated goal,
+     * or null if the user has no goal with this id.
+     */
+    Goal addContribution(String userId, String id, String contributionId, double amount, long syncVersion);
+
+    /**
+     * Sets the given fields on the user's goal with this id in one
+     * findAndModify and marks it ACHIEVED if the target is now reached. Returns
+     * the updated goal, or null if the user has no goal with this id.
+     */
+    Goal updateOwned(String userId, String id, Map<String, Object> fields);
+
+    /**
+     * Deletes the user's goal with this id. Returns false if the user has no
+     * goal with this id.
+     */
+    boolean deleteOwned(String userId, String id);
+}
@@ -0,0 +1,83 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.Goal;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.aggregation.SystemVariable;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+
+public class GoalRepositoryImpl implements GoalRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Contribution ids kept on a goal; a retry always comes long before this many others
+    private static final int APPLIED_CONTRIBUTIONS = 50;
+
+    @Override
+    public Goal addContribution(String userId, String id, String contributionId, double amount, long syncVersion) {
+        Document applied = new Document("$ifNull", List.of("$appliedContributions", List.of()));
+        Document alreadyApplied = new Document("$in", List.of(new Document("$literal", contributionId), applied));
+
+        // Both stages test the id list as it was, since it changes only in the second
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("currentAmount").toValue(new Document("$cond", List.of(alreadyApplied,
+                        "$currentAmount",
+                        new Document("$add", List.of(new Document("$ifNull", List.of("$currentAmount", 0)), amount)))))
+                .set("appliedContributions").toValue(new Document("$cond", List.of(alreadyApplied,
+                        applied,
+                        new Document("$slice", List.of(
+                                new Document("$concatArrays", List.of(applied, List.of(new Document("$literal", contributionId)))),
+                                -APPLIED_CONTRIBUTIONS)))))
+                .set("syncVersion").toValue(syncVersion);
+
+        return findAndModify(userId, id, update);
+    }
+
+    @Override
+    public Goal updateOwned(String userId, String id, Map<String, Object> fields) {
+        AggregationUpdate update = AggregationUpdate.update();
+        fields.forEach((field, value) -> update.set(field).toValue(
+                // Pipeline stages would read a string starting with '$' as a field path
+                value instanceof String ? LiteralOperators.valueOf(value).asLiteral() : value));
+
+        return findAndModify(userId, id, update);
+    }
+
+    @Override
+    public boolean deleteOwned(String userId, String id) {
+        return mongoTemplate.remove(owned(userId, id), Goal.class).getDeletedCount() > 0;
+    }
+
+    private Goal findAndModify(String userId, String id, AggregationUpdate update) {
+        // Each set() is its own pipeline stage, so the status check sees the new amounts.
+        // A goal without a positive target is never achieved: null would compare below any amount.
+        update.set("status").toValue(
+                        ConditionalOperators.when(BooleanOperators.And.and(
+                                        ComparisonOperators.valueOf(ConditionalOperators.ifNull("targetAmount").then(0))
+                                                .greaterThanValue(0),
+                                        ComparisonOperators.valueOf("currentAmount")
+                                                .greaterThanEqualTo("targetAmount")))
+                                .then("ACHIEVED")
+                                .otherwiseValueOf("status"))
+                .set("updatedAt").toValue(SystemVariable.NOW);
+
+        return mongoTemplate.findAndModify(owned(userId, id), update,
+                FindAndModifyOptions.options().returnNew(true), Goal.class);
+    }
+
+    private Query owned(String userId, String id) {
+        return new Query(Criteria.where("id").is(id).and("userId").is(userId));
+    }
+}
@@ -0,0 +1,16 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.MonthlyRollup;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MonthlyRollupRepository extends MongoRepository<MonthlyRollup, String>, MonthlyRollupRepositoryCustom {
+    List<MonthlyRollup> findByUserIdAndPeriodBetween(String userId, Range<Integer> period);
+    Optional<MonthlyRollup> findByUserIdAndPeriodAndCategory(String userId, Integer period, String category);
+    void deleteByUserId(String userId);
+}
@@ -0,0 +1,20 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.MonthlyRollup;
+
+import java.util.Collection;
+
+public interface MonthlyRollupRepositoryCustom {
+
+    /**
+     * Atomically adds to one rollup bucket, creating it if it does not exist yet.
+     */
+    void increment(String userId, int year, int month, String category,
+                   double income, double expense, long count);
+
+    /**
+     * Applies many increments in one unordered bulk write. Each element carries
+     * its bucket key and the amounts to add.
+     */
+    void incrementAll(Collection<MonthlyRollup> deltas);
+}
@@ -0,0 +1,55 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.MonthlyRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public class MonthlyRollupRepositoryImpl implements MonthlyRollupRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void increment(String userId, int year, int month, String category,
+                          double income, double expense, long count) {
+        mongoTemplate.upsert(bucket(userId, year, month, category),
+                delta(year, month, income, expense, count), MonthlyRollup.class);
+    }
+
+    @Override
+    public void incrementAll(Collection<MonthlyRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MonthlyRollup.class);
+        for (MonthlyRollup d : deltas) {
+            bulk.upsert(bucket(d.getUserId(), d.getYear(), d.getMonth(), d.getCategory()),
+                    delta(d.getYear(), d.getMonth(), d.getIncome(), d.getExpense(), d.getCount()));
+        }
+        bulk.execute();
+    }
+
+    private Query bucket(String userId, int year, int month, String category) {
+        return new Query(Criteria.where("userId").is(userId)
+                .and("period").is(year * 100 + month)
+                .and("category").is(category));
+    }
+
+    private Update delta(int year, int month, double income, double expense, long count) {
+        return new Update()
+                .inc("income", income)
+                .inc("expense", expense)
+                .inc("count", count)
+                .setOnInsert("year", year)
+                .setOnInsert("month", month)
+                .set("updatedAt", LocalDateTime.now());
+    }
+}
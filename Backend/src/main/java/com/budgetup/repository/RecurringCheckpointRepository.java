@@ -0,0 +1,9 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.RecurringCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RecurringCheckpointRepository extends MongoRepository<RecurringCheckpoint, Integer>, RecurringCheckpointRepositoryCustom {
+}
@@ -0,0 +1,23 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.RecurringCheckpoint;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+public interface RecurringCheckpointRepositoryCustom {
+
+    /**
+     * Takes or renews the lease on a partition until {@code leaseUntil}.
+     * Returns the partition's checkpoint, or null while another instance
+     * holds an unexpired lease.
+     */
+    RecurringCheckpoint acquire(int partition, String owner, Date leaseUntil);
+
+    /**
+     * Records progress on a partition and moves its lease to
+     * {@code leaseUntil}. Returns false if {@code owner} no longer holds the
+     * lease.
+     */
+    boolean checkpoint(int partition, String owner, LocalDate runDate, String lastUserId, boolean completed, Date leaseUntil);
+}
@@ -0,0 +1,47 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.RecurringCheckpoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+public class RecurringCheckpointRepositoryImpl implements RecurringCheckpointRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public RecurringCheckpoint acquire(int partition, String owner, Date leaseUntil) {
+        Query free = new Query(Criteria.where("id").is(partition).orOperator(
+                Criteria.where("owner").is(owner),
+                Criteria.where("leaseUntil").lt(new Date())));
+        try {
+            return mongoTemplate.findAndModify(free,
+                    new Update().set("owner", owner).set("leaseUntil", leaseUntil),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    RecurringCheckpoint.class);
+        } catch (DuplicateKeyException e) {
+            // The partition exists and is leased to someone else, so the upsert tried to insert it again
+            return null;
+        }
+    }
+
+    @Override
+    public boolean checkpoint(int partition, String owner, LocalDate runDate, String lastUserId, boolean completed, Date leaseUntil) {
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(partition).and("owner").is(owner)),
+                new Update()
+                        .set("runDate", runDate)
+                        .set("lastUserId", lastUserId)
+                        .set("completed", completed)
+                        .set("leaseUntil", leaseUntil),
+                RecurringCheckpoint.class).getMatchedCount() > 0;
+    }
+}
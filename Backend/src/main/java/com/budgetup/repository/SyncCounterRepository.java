@@ -0,0 +1,9 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.SyncCounter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncCounterRepository extends MongoRepository<SyncCounter, String>, SyncCounterRepositoryCustom {
+}
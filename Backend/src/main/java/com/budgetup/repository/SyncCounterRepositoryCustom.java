@@ -0,0 +1,18 @@
+package com.budgetup.repository;
+
+import java.util.Date;
+
+public interface SyncCounterRepositoryCustom {
+
+    /**
+     * Atomically reserves {@code count} consecutive versions for the user and
+     * returns the highest one. The reservation stays pending until it is
+     * released or {@code pendingUntil} passes.
+     */
+    long reserve(String userId, int count, Date pendingUntil);
+
+    /**
+     * Drops the pending reservation that starts at {@code first}.
+     */
+    void release(String userId, long first);
+}
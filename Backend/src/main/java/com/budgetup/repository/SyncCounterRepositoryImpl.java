@@ -0,0 +1,49 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.SyncCounter;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+
+public class SyncCounterRepositoryImpl implements SyncCounterRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public long reserve(String userId, int count, Date pendingUntil) {
+        Document version = new Document("$ifNull", List.of("$version", 0L));
+
+        // Record the reservation against the old counter, dropping lapsed ones, then advance it
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("pending").toValue(new Document("$concatArrays", List.of(
+                        new Document("$filter", new Document("input", new Document("$ifNull", List.of("$pending", List.of())))
+                                .append("cond", new Document("$gt", List.of("$$this.until", new Date())))),
+                        List.of(new Document("first", new Document("$add", List.of(version, 1L)))
+                                .append("until", pendingUntil)))))
+                .set("version").toValue(new Document("$add", List.of(version, (long) count)));
+
+        SyncCounter counter = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(userId)),
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                SyncCounter.class);
+        return counter.getVersion();
+    }
+
+    @Override
+    public void release(String userId, long first) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(userId)),
+                new Update().pull("pending", new Document("first", first)),
+                SyncCounter.class);
+    }
+}
@@ -0,0 +1,12 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.Tombstone;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends MongoRepository<Tombstone, String> {
+    List<Tombstone> findByUserIdAndSyncVersionGreaterThanOrderBySyncVersionAsc(String userId, Long since);
+}
@@ -1,16 +1,30 @@
 package com.budgetup.repository;
 
 import com.budgetup.model.Transaction;
+import org.springframework.data.domain.Range;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends MongoRepository<Transaction, String> {
+public interface TransactionRepository extends MongoRepository<Transaction, String>, TransactionRepositoryCustom {
     List<Transaction> findByUserIdOrderByDateDesc(String userId);
     List<Transaction> findByUserIdAndDateBetweenOrderByDateDesc(String userId, LocalDate start, LocalDate end);
     List<Transaction> findByUserIdAndType(String userId, String type);
     List<Transaction> findByUserIdAndCategory(String userId, String category);
+
+    // Cursor-backed; callers must close the stream
+    Stream<Transaction> streamByUserIdOrderByDateDesc(String userId);
+    Stream<Transaction> streamByUserIdAndDateBetweenOrderByDateDesc(String userId, Range<LocalDate> date);
+
+    // Analytics only needs these four fields; skipping description, merchant etc. keeps documents small
+    @Query(value = "{ 'userId': ?0, 'date': { '$gte': ?1, '$lte': ?2 } }",
+            fields = "{ 'type': 1, 'amount': 1, 'category': 1, 'date': 1 }")
+    Stream<Transaction> streamAnalyticsFields(String userId, LocalDate start, LocalDate end);
+
+    List<Transaction> findByUserIdAndSyncVersionGreaterThanOrderBySyncVersionAsc(String userId, Long since);
 }
@@ -0,0 +1,65 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.MonthlyTotal;
+import com.budgetup.model.Transaction;
+import com.budgetup.model.TransactionFilter;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Sums all of a user's transactions per calendar month, category and type
+     * with a single aggregation.
+     */
+    List<MonthlyTotal> sumByMonthCategoryAndType(String userId);
+
+    List<String> findDistinctUserIds();
+
+    /**
+     * Returns up to {@code limit} transactions ordered by (date desc, id desc),
+     * starting strictly after the given position. A null position starts at
+     * the newest transaction.
+     */
+    List<Transaction> findPage(String userId, TransactionFilter filter,
+                               LocalDate afterDate, String afterId, int limit);
+
+    /**
+     * Applies {@code update} to the user's transaction with this id in one
+     * findAndModify. Returns the transaction as it was before the update, or
+     * null if the user has no transaction with this id.
+     */
+    Transaction findAndUpdateOwned(String userId, String id, Update update);
+
+    /**
+     * Deletes the user's transaction with this id and returns it, or returns
+     * null if the user has no transaction with this id.
+     */
+    Transaction findAndRemoveOwned(String userId, String id);
+
+    /**
+     * Streams the recurring transactions with an occurrence due on or before
+     * {@code today} whose {@code recurringHash} modulo {@code partitions} is
+     * one of {@code held}, or which have no hash yet. Ordered by (userId, id)
+     * and starting after the given user. Callers must close the stream.
+     */
+    Stream<Transaction> streamDueRecurring(LocalDate today, String afterUserId, int partitions, Collection<Integer> held);
+
+    /**
+     * Inserts the transactions with one unordered insertMany, skipping those
+     * that collide with a unique index. Returns the ones inserted. If any row
+     * fails for another reason, throws a PartialInsertException that carries
+     * the rows that did go in.
+     */
+    List<Transaction> insertIgnoringDuplicates(List<Transaction> transactions);
+
+    /**
+     * Stores {@code recurringNextDate} and {@code recurringHash} of each
+     * recurring transaction with one bulk write.
+     */
+    void setRecurringNextDates(List<Transaction> templates);
+}
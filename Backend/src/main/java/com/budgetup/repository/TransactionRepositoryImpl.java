@@ -0,0 +1,209 @@
+package com.budgetup.repository;
+
+import com.budgetup.exception.PartialInsertException;
+import com.budgetup.model.MonthlyTotal;
+import com.budgetup.model.Transaction;
+import com.budgetup.model.TransactionFilter;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<MonthlyTotal> sumByMonthCategoryAndType(String userId) {
+        // LocalDate is stored as midnight in the JVM's zone, so extract the
+        // month in that same zone or dates near midnight UTC shift months.
+        DateOperators.DateOperatorFactory date = DateOperators.dateOf("date")
+                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                Aggregation.project("type", "category", "amount")
+                        .and(date.year()).as("year")
+                        .and(date.month()).as("month"),
+                Aggregation.group("year", "month", "category", "type")
+                        .sum("amount").as("total")
+                        .count().as("count")
+        );
+
+        List<MonthlyTotal> totals = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Transaction.class, Document.class)) {
+            Document key = row.get("_id", Document.class);
+            Number total = row.get("total", Number.class);
+            Number count = row.get("count", Number.class);
+            totals.add(new MonthlyTotal(
+                    key.getInteger("year"),
+                    key.getInteger("month"),
+                    key.getString("type"),
+                    key.getString("category"),
+                    total != null ? total.doubleValue() : 0.0,
+                    count != null ? count.longValue() : 0L
+            ));
+        }
+        return totals;
+    }
+
+    @Override
+    public List<String> findDistinctUserIds() {
+        return mongoTemplate.findDistinct(new Query(), "userId", Transaction.class, String.class);
+    }
+
+    @Override
+    public List<Transaction> findPage(String userId, TransactionFilter filter,
+                                      LocalDate afterDate, String afterId, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+
+        if (filter.getType() != null) criteria.and("type").is(filter.getType());
+        if (filter.getCategory() != null) criteria.and("category").is(filter.getCategory());
+
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            Criteria date = criteria.and("date");
+            if (filter.getFrom() != null) date.gte(filter.getFrom());
+            if (filter.getTo() != null) date.lte(filter.getTo());
+        }
+
+        if (filter.getMinAmount() != null || filter.getMaxAmount() != null) {
+            Criteria amount = criteria.and("amount");
+            if (filter.getMinAmount() != null) amount.gte(filter.getMinAmount());
+            if (filter.getMaxAmount() != null) amount.lte(filter.getMaxAmount());
+        }
+
+        if (afterDate != null && afterId != null) {
+            // Keyset: everything sorting after (afterDate, afterId) in (date desc, _id desc) order
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("date").lt(afterDate),
+                    Criteria.where("date").is(afterDate).and("id").lt(afterId)
+            ));
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id")))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Transaction.class);
+    }
+
+    @Override
+    public Transaction findAndUpdateOwned(String userId, String id, Update update) {
+        return mongoTemplate.findAndModify(owned(userId, id), update, Transaction.class);
+    }
+
+    @Override
+    public Transaction findAndRemoveOwned(String userId, String id) {
+        return mongoTemplate.findAndRemove(owned(userId, id), Transaction.class);
+    }
+
+    @Override
+    public Stream<Transaction> streamDueRecurring(LocalDate today, String afterUserId, int partitions, Collection<Integer> held) {
+        // isRecurring: true lets the planner use the partial recurring_user_id index
+        Criteria criteria = Criteria.where("isRecurring").is(true);
+        if (afterUserId != null) {
+            criteria.and("userId").gt(afterUserId);
+        }
+
+        // Templates written before the hash existed are read by everyone until they get one
+        List<Criteria> partitionsHeld = new ArrayList<>();
+        for (int partition : held) {
+            partitionsHeld.add(Criteria.where("recurringHash").mod(partitions, partition));
+        }
+        partitionsHeld.add(Criteria.where("recurringHash").is(null));
+
+        criteria.andOperator(
+                new Criteria().orOperator(
+                        Criteria.where("recurringNextDate").lte(today),
+                        Criteria.where("recurringNextDate").is(null)),
+                new Criteria().orOperator(partitionsHeld));
+
+        Query query = new Query(criteria).with(Sort.by(Sort.Order.asc("userId"), Sort.Order.asc("id")));
+        return mongoTemplate.stream(query, Transaction.class);
+    }
+
+    @Override
+    public List<Transaction> insertIgnoringDuplicates(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+
+        // Ids are assigned up front so the inserted rows are known even when some fail
+        for (Transaction transaction : transactions) {
+            if (transaction.getId() == null) {
+                transaction.setId(new ObjectId().toHexString());
+            }
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class)
+                    .insert(transactions)
+                    .execute();
+            return transactions;
+        } catch (BulkOperationException e) {
+            Set<Integer> notInserted = new HashSet<>();
+            Map<Integer, String> failures = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                notInserted.add(error.getIndex());
+                if (error.getCode() != DUPLICATE_KEY) {
+                    failures.put(error.getIndex(), error.getMessage());
+                }
+            }
+
+            List<Transaction> inserted = new ArrayList<>(transactions.size() - notInserted.size());
+            for (int i = 0; i < transactions.size(); i++) {
+                if (!notInserted.contains(i)) {
+                    inserted.add(transactions.get(i));
+                }
+            }
+
+            if (!failures.isEmpty()) {
+                throw new PartialInsertException("Could not insert " + failures.size() + " of "
+                        + transactions.size() + " transactions", inserted, failures, e);
+            }
+            return inserted;
+        }
+    }
+
+    @Override
+    public void setRecurringNextDates(List<Transaction> templates) {
+        if (templates.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class);
+        for (Transaction template : templates) {
+            bulk.updateOne(new Query(Criteria.where("id").is(template.getId())), new Update()
+                    .set("recurringNextDate", template.getRecurringNextDate())
+                    .set("recurringHash", template.getRecurringHash()));
+        }
+        bulk.execute();
+    }
+
+    private Query owned(String userId, String id) {
+        return new Query(Criteria.where("id").is(id).and("userId").is(userId));
+    }
+}
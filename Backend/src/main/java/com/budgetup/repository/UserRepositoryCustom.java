@@ -0,0 +1,26 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.User;
+
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Sets only the given fields, plus updatedAt, on the user. Returns false if
+     * no user has this id.
+     */
+    boolean setFields(String id, Map<String, Object> fields);
+
+    /**
+     * Sets only the given fields, plus updatedAt, and returns the updated user,
+     * or null if no user has this id.
+     */
+    User setFieldsAndGet(String id, Map<String, Object> fields);
+
+    /**
+     * Replaces the user's password hash only while it is still
+     * {@code currentHash}. Returns false if it was changed meanwhile.
+     */
+    boolean replacePassword(String id, String currentHash, String newHash);
+}
@@ -0,0 +1,47 @@
+package com.budgetup.repository;
+
+import com.budgetup.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean setFields(String id, Map<String, Object> fields) {
+        return mongoTemplate.updateFirst(byId(id), update(fields), User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public User setFieldsAndGet(String id, Map<String, Object> fields) {
+        return mongoTemplate.findAndModify(byId(id), update(fields),
+                FindAndModifyOptions.options().returnNew(true), User.class);
+    }
+
+    @Override
+    public boolean replacePassword(String id, String currentHash, String newHash) {
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(id).and("password").is(currentHash)),
+                update(Map.of("password", newHash)),
+                User.class).getModifiedCount() > 0;
+    }
+
+    private Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+
+    private Update update(Map<String, Object> fields) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        return update.set("updatedAt", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,71 @@
+package com.budgetup.security;
+
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.PublicKey;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Google's signing certificates, cached for as long as the certificate
+ * response allows and refreshed in the background before they expire, so
+ * sign-ins never wait on the certificate download once keys are loaded.
+ * The key source unless {@code app.auth.google.key-source} names another
+ * one, such as a fixed key pair in tests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.google.key-source", havingValue = "certs", matchIfMissing = true)
+public class GoogleCertsKeySource implements GooglePublicKeySource {
+
+    // Refresh this long before the certificates expire
+    private static final long REFRESH_AHEAD_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final long RETRY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final GooglePublicKeysManager keysManager = new GooglePublicKeysManager(
+            new NetHttpTransport(), GsonFactory.getDefaultInstance());
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "google-certs-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        refresher.execute(this::refresh);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public List<PublicKey> getPublicKeys() throws Exception {
+        // Served from memory while fresh; only fetches if the background
+        // refresh has not managed to load keys yet
+        return keysManager.getPublicKeys();
+    }
+
+    private void refresh() {
+        long delay;
+        try {
+            keysManager.refresh();
+            long untilExpiry = keysManager.getExpirationTimeMilliseconds() - System.currentTimeMillis();
+            delay = Math.max(untilExpiry - REFRESH_AHEAD_MILLIS, RETRY_MILLIS);
+        } catch (Exception e) {
+            System.err.println("Google certificate refresh failed: " + e.getMessage());
+            delay = RETRY_MILLIS;
+        }
+        refresher.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,13 @@
+package com.budgetup.security;
+
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * Supplies the public keys Google ID tokens are checked against. The default
+ * implementation downloads Google's certificates; tests can provide local keys.
+ */
+public interface GooglePublicKeySource {
+
+    List<PublicKey> getPublicKeys() throws Exception;
+}
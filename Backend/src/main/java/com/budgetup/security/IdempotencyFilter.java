@@ -0,0 +1,174 @@
+package com.budgetup.security;
+
+import com.budgetup.util.CachedBodyRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Makes the create endpoints safe to retry. A POST carrying an
+ * {@code Idempotency-Key} header runs once per user and key; a retry with the
+ * same body gets the recorded response back, a duplicate that arrives while
+ * the first is still running waits for it, and reusing a key for a different
+ * body is rejected with 422. Only successes and deliberate rejections are
+ * recorded; 5xx responses, including database failures, and the retryable
+ * 408 and 429 free the key so the request can be retried.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Create requests are small; larger bodies are not buffered for a fingerprint
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private static final List<String> ROUTES = List.of(
+            "/api/transactions",
+            "/api/budgets",
+            "/api/goals/*/contribute"
+    );
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.idempotency.wait-ms:10000}")
+    private long waitMillis;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = path(request);
+        return ROUTES.stream().noneMatch(route -> pathMatcher.match(route, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails user)) {
+            // Unauthenticated requests are rejected further down the chain
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String idempotencyKey = request.getHeader(HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            reject(response, 400, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        // Chunked bodies are read too, but never more than the limit
+        CachedBodyRequest cachedRequest = request.getContentLengthLong() > MAX_BODY_BYTES
+                ? null
+                : CachedBodyRequest.readBounded(request, MAX_BODY_BYTES);
+        if (cachedRequest == null) {
+            reject(response, 413, "Requests with an Idempotency-Key may have a body of at most "
+                    + MAX_BODY_BYTES + " bytes");
+            return;
+        }
+        String key = user.getId() + "|" + idempotencyKey;
+        String fingerprint = fingerprint(path(request), cachedRequest.getBody());
+
+        IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+        if (claim.token() != null) {
+            execute(key, claim.token(), cachedRequest, response, filterChain);
+            return;
+        }
+
+        if (!claim.holder().equals(fingerprint)) {
+            reject(response, 422, "Idempotency-Key was already used for a different request");
+            return;
+        }
+
+        IdempotencyStore.StoredResponse stored = store.await(key, Duration.ofMillis(waitMillis));
+        if (stored == null) {
+            response.setHeader("Retry-After", "1");
+            reject(response, 409, "A request with this Idempotency-Key is still in progress");
+            return;
+        }
+
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader("Idempotent-Replayed", "true");
+        if (stored.body() != null) {
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void execute(String key,
+                         String token,
+                         HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean recorded = false;
+        try {
+            filterChain.doFilter(request, cachedResponse);
+
+            if (recordable(cachedResponse.getStatus())) {
+                store.complete(key, token, new IdempotencyStore.StoredResponse(cachedResponse.getStatus(),
+                        cachedResponse.getContentType(), cachedResponse.getContentAsByteArray()));
+                recorded = true;
+            }
+        } finally {
+            if (!recorded) {
+                store.release(key, token);
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    private static boolean recordable(int status) {
+        return status >= 200 && status < 500 && status != 408 && status != 429;
+    }
+
+    private static String fingerprint(String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(path.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setContentType("application/json");
+        response.setStatus(status);
+        response.getWriter().write("{\"message\": \"" + message + "\"}");
+    }
+}
@@ -0,0 +1,40 @@
+package com.budgetup.security;
+
+import java.time.Duration;
+
+/**
+ * Remembers the outcome of requests sent with an {@code Idempotency-Key}.
+ * Selected with {@code app.idempotency.store}: {@code memory} (default) keeps
+ * keys in this process, {@code mongo} shares them between instances.
+ */
+public interface IdempotencyStore {
+
+    record StoredResponse(int status, String contentType, byte[] body) {}
+
+    /**
+     * Outcome of a claim: {@code token} is set if the caller now holds the key,
+     * otherwise {@code holder} is the fingerprint of the request that does.
+     */
+    record Claim(String token, String holder) {}
+
+    /**
+     * Claims the key for a request with this fingerprint. The token of a
+     * successful claim must be passed to {@link #complete} or
+     * {@link #release}, so a holder whose claim was taken over cannot touch
+     * the new holder's outcome.
+     */
+    Claim claim(String key, String fingerprint);
+
+    /**
+     * Waits up to {@code timeout} for the holder of the key to finish. Returns
+     * its response, or null if it is still running or gave the key up.
+     */
+    StoredResponse await(String key, Duration timeout);
+
+    void complete(String key, String token, StoredResponse response);
+
+    /**
+     * Frees the key without recording a response, so a retry runs again.
+     */
+    void release(String key, String token);
+}
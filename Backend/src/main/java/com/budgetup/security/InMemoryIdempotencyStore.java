@@ -0,0 +1,83 @@
+package com.budgetup.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency keys held in a bounded Caffeine cache. Each key carries a future
+ * that duplicates wait on, so only requests for the same key ever block each
+ * other.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private record Entry(String token, String fingerprint, CompletableFuture<StoredResponse> response) {}
+
+    private final Cache<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.max-keys:100000}") long maxKeys,
+                                    @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                                    MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency");
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        Entry entry = new Entry(UUID.randomUUID().toString(), fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        return existing == null ? new Claim(entry.token(), null) : new Claim(null, existing.fingerprint());
+    }
+
+    @Override
+    public StoredResponse await(String key, Duration timeout) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+
+        try {
+            return entry.response().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void complete(String key, String token, StoredResponse response) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.token().equals(token)) {
+            entry.response().complete(response);
+        }
+    }
+
+    @Override
+    public void release(String key, String token) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.token().equals(token) && entries.asMap().remove(key, entry)) {
+            // Wakes the waiters, who answer 409 so their clients retry
+            entry.response().complete(null);
+        }
+    }
+}
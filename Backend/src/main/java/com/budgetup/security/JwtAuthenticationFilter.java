@@ -6,6 +6,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +26,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    // "cache" loads the user (through the principal cache) on every request;
+    // "claims" builds the principal for GET/HEAD requests from the token alone.
+    // In claims mode a deleted user keeps read access until the token expires.
+    @Value("${app.auth.principal-mode:cache}")
+    private String principalMode;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -33,10 +40,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtService.validateToken(jwt)) {
-                String userId = jwtService.getUserIdFromToken(jwt);
+            JwtService.VerifiedToken token = StringUtils.hasText(jwt) ? jwtService.verify(jwt) : null;
 
-                UserDetails userDetails = userDetailsService.loadUserById(userId);
+            if (token != null) {
+                UserDetails userDetails = useClaims(request)
+                        ? userDetailsService.fromClaims(token.userId(), token.email())
+                        : userDetailsService.loadUserById(token.userId());
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
@@ -54,6 +63,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean useClaims(HttpServletRequest request) {
+        return "claims".equalsIgnoreCase(principalMode)
+                && ("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()));
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,161 @@
+package com.budgetup.security;
+
+import com.budgetup.model.IdempotencyRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotency keys in the {@code idempotency_keys} collection, shared by every
+ * instance. A running request holds its key for a lease of
+ * {@code app.idempotency.pending-seconds}, renewed every
+ * {@code app.idempotency.renew-ms} for as long as it runs, so only an instance
+ * that crashed or stalled past the lease loses its keys to a retry.
+ * Duplicates poll the record until it completes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "mongo")
+public class MongoIdempotencyStore implements IdempotencyStore {
+
+    private static final long POLL_MILLIS = 50;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.idempotency.pending-seconds:60}")
+    private long pendingSeconds;
+
+    // Keys claimed by requests still running on this instance, with their tokens
+    private final Map<String, String> running = new ConcurrentHashMap<>();
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        Claim claim = tryClaim(key, fingerprint);
+        if (claim.token() != null) {
+            running.put(key, claim.token());
+        }
+        return claim;
+    }
+
+    private Claim tryClaim(String key, String fingerprint) {
+        String token = UUID.randomUUID().toString();
+        Date leaseEnd = leaseEnd();
+        if (insert(key, token, fingerprint, leaseEnd)) {
+            return new Claim(token, null);
+        }
+
+        // The TTL monitor only runs once a minute, so a lapsed lease can still be there
+        IdempotencyRecord takenOver = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(key).and("status").is(null).and("expiresAt").lt(new Date())),
+                new Update().set("token", token).set("fingerprint", fingerprint).set("expiresAt", leaseEnd),
+                FindAndModifyOptions.options().returnNew(true),
+                IdempotencyRecord.class);
+        if (takenOver != null) {
+            return new Claim(token, null);
+        }
+
+        IdempotencyRecord existing = mongoTemplate.findById(key, IdempotencyRecord.class);
+        if (existing != null) {
+            return new Claim(null, existing.getFingerprint());
+        }
+
+        // Released between the insert and the read: try once more, otherwise
+        // the caller finds nothing to wait for and answers 409
+        return insert(key, token, fingerprint, leaseEnd) ? new Claim(token, null) : new Claim(null, fingerprint);
+    }
+
+    @Override
+    public StoredResponse await(String key, Duration timeout) {
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        while (true) {
+            IdempotencyRecord record = mongoTemplate.findById(key, IdempotencyRecord.class);
+            if (record == null) {
+                return null;
+            }
+            if (record.getStatus() != null) {
+                return new StoredResponse(record.getStatus(), record.getContentType(), record.getBody());
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return null;
+            }
+
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, String token, StoredResponse response) {
+        running.remove(key, token);
+        // A holder whose lease lapsed and was taken over no longer matches
+        mongoTemplate.updateFirst(held(key, token),
+                new Update()
+                        .set("status", response.status())
+                        .set("contentType", response.contentType())
+                        .set("body", response.body())
+                        .set("expiresAt", new Date(System.currentTimeMillis() + Duration.ofHours(ttlHours).toMillis())),
+                IdempotencyRecord.class);
+    }
+
+    @Override
+    public void release(String key, String token) {
+        running.remove(key, token);
+        mongoTemplate.remove(held(key, token), IdempotencyRecord.class);
+    }
+
+    @Scheduled(initialDelayString = "${app.idempotency.renew-ms:20000}",
+            fixedDelayString = "${app.idempotency.renew-ms:20000}")
+    public void renewLeases() {
+        if (running.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, IdempotencyRecord.class);
+        Date leaseEnd = leaseEnd();
+        running.forEach((key, token) -> bulk.updateOne(held(key, token), new Update().set("expiresAt", leaseEnd)));
+        try {
+            bulk.execute();
+        } catch (RuntimeException e) {
+            System.err.println("Could not renew idempotency key leases: " + e.getMessage());
+        }
+    }
+
+    private Date leaseEnd() {
+        return new Date(System.currentTimeMillis() + Duration.ofSeconds(pendingSeconds).toMillis());
+    }
+
+    private Query held(String key, String token) {
+        return new Query(Criteria.where("id").is(key).and("token").is(token).and("status").is(null));
+    }
+
+    private boolean insert(String key, String token, String fingerprint, Date leaseEnd) {
+        try {
+            mongoTemplate.insert(new IdempotencyRecord(key, token, fingerprint, null, null, null, leaseEnd));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
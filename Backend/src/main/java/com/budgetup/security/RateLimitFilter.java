@@ -0,0 +1,136 @@
+package com.budgetup.security;
+
+import com.budgetup.util.CachedBodyRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throttles the unauthenticated auth endpoints per client IP and per account
+ * email before any user lookup or password hashing happens. Limits are set
+ * per route under {@code app.rate-limit.<route>.ip.*} and
+ * {@code app.rate-limit.<route>.account.*}; a capacity of 0 turns a limit off.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Route(String name, TokenBucketLimiter.Limit perIp, TokenBucketLimiter.Limit perAccount) {}
+
+    // Auth bodies larger than this are refused with 413
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final Map<String, Route> routes;
+
+    private final TokenBucketLimiter limiter;
+
+    public RateLimitFilter(Environment env) {
+        this.enabled = env.getProperty("app.rate-limit.enabled", Boolean.class, true);
+        this.routes = Map.of(
+                "/api/auth/login", route(env, "login", 20, 20, 10, 5),
+                "/api/auth/signup", route(env, "signup", 10, 5, 3, 1),
+                "/auth/google", route(env, "google", 20, 20, 0, 0)
+        );
+        this.limiter = new TokenBucketLimiter(
+                env.getProperty("app.rate-limit.max-keys", Long.class, 100_000L),
+                Duration.ofMinutes(env.getProperty("app.rate-limit.idle-minutes", Long.class, 15L)));
+    }
+
+    private static Route route(Environment env, String name,
+                               int ipCapacity, double ipRefill, int accountCapacity, double accountRefill) {
+        String prefix = "app.rate-limit." + name;
+        return new Route(name,
+                new TokenBucketLimiter.Limit(
+                        env.getProperty(prefix + ".ip.capacity", Integer.class, ipCapacity),
+                        env.getProperty(prefix + ".ip.refill-per-minute", Double.class, ipRefill)),
+                new TokenBucketLimiter.Limit(
+                        env.getProperty(prefix + ".account.capacity", Integer.class, accountCapacity),
+                        env.getProperty(prefix + ".account.refill-per-minute", Double.class, accountRefill)));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !routes.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Route route = routes.get(path(request));
+
+        if (route.perIp().enabled()) {
+            long retryAfter = limiter.tryAcquire(route.name() + "|ip|" + request.getRemoteAddr(), route.perIp());
+            if (retryAfter > 0) {
+                reject(response, retryAfter);
+                return;
+            }
+        }
+
+        if (route.perAccount().enabled()) {
+            // A body that cannot be checked for an email is refused, never passed through unthrottled
+            CachedBodyRequest cachedRequest = request.getContentLengthLong() > MAX_BODY_BYTES
+                    ? null
+                    : CachedBodyRequest.readBounded(request, MAX_BODY_BYTES);
+            if (cachedRequest == null) {
+                tooLarge(response);
+                return;
+            }
+            request = cachedRequest;
+
+            String email = emailOf(cachedRequest.getBody());
+            if (email != null) {
+                long retryAfter = limiter.tryAcquire(route.name() + "|account|" + email, route.perAccount());
+                if (retryAfter > 0) {
+                    reject(response, retryAfter);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String emailOf(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Let the controller report the malformed body
+            return null;
+        }
+    }
+
+    private String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void tooLarge(HttpServletResponse response) throws IOException {
+        response.setContentType("application/json");
+        response.setStatus(413);
+        response.getWriter().write("{\"message\": \"Request body is too large\"}");
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setContentType("application/json");
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.getWriter().write("{\"message\": \"Too many attempts, please try again later\"}");
+    }
+}
@@ -0,0 +1,81 @@
+package com.budgetup.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token buckets keyed by arbitrary strings. Each bucket is updated with a
+ * compare-and-set loop, so concurrent requests never block each other. Keys
+ * are held in a size-bounded map and dropped after a period without requests.
+ */
+public class TokenBucketLimiter {
+
+    /**
+     * Burst size and sustained rate of one bucket.
+     */
+    public record Limit(int capacity, double refillPerMinute) {
+
+        public boolean enabled() {
+            return capacity > 0 && refillPerMinute > 0;
+        }
+    }
+
+    private record State(double tokens, long timestampNanos) {}
+
+    private static final class Bucket {
+
+        private final int capacity;
+
+        private final double tokensPerNano;
+
+        private final AtomicReference<State> state;
+
+        Bucket(Limit limit, long now) {
+            this.capacity = limit.capacity();
+            this.tokensPerNano = limit.refillPerMinute() / TimeUnit.MINUTES.toNanos(1);
+            this.state = new AtomicReference<>(new State(limit.capacity(), now));
+        }
+
+        /**
+         * Takes one token. Returns 0 on success, otherwise the nanoseconds
+         * until a token becomes available.
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = Math.min(capacity,
+                        current.tokens() + Math.max(now - current.timestampNanos(), 0) * tokensPerNano);
+
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / tokensPerNano);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private final Cache<String, Bucket> buckets;
+
+    public TokenBucketLimiter(long maxKeys, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    /**
+     * Takes a token from the bucket for {@code key}. Returns 0 if the request
+     * is allowed, otherwise the number of seconds until it may be retried.
+     */
+    public long tryAcquire(String key, Limit limit) {
+        long now = System.nanoTime();
+        long waitNanos = buckets.get(key, k -> new Bucket(limit, now)).tryAcquire(now);
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+}
@@ -2,18 +2,41 @@ package com.budgetup.security;
 
 import com.budgetup.model.User;
 import com.budgetup.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Autowired
     private UserRepository userRepository;
 
+    // Principals of recently authenticated users, so a request with a valid
+    // token does not need a user lookup. Writes to a user evict its entry.
+    private final Cache<String, CustomUserDetails> principals;
+
+    public UserDetailsServiceImpl(@Value("${app.auth.principal-cache.max-size:10000}") long maxSize,
+                                  @Value("${app.auth.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                                  MeterRegistry meterRegistry) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
@@ -23,9 +46,26 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     }
 
     public UserDetails loadUserById(String id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        return principals.get(id, key -> {
+            User user = userRepository.findById(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + key));
 
+            return new CustomUserDetails(user);
+        });
+    }
+
+    /**
+     * Builds a principal from verified token claims without touching the
+     * database. Only the id and email are populated.
+     */
+    public UserDetails fromClaims(String id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
         return new CustomUserDetails(user);
     }
+
+    public void evict(String id) {
+        principals.invalidate(id);
+    }
 }
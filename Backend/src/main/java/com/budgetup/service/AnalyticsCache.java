@@ -0,0 +1,67 @@
+package com.budgetup.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache of analytics results keyed by user, endpoint and
+ * parameters. Hit, miss and eviction counts are published as the
+ * {@code cache.*} metrics tagged {@code cache=analytics}.
+ */
+@Component
+public class AnalyticsCache {
+
+    private record Key(String userId, long generation, String endpoint, String params) {}
+
+    private final Cache<Key, Object> cache;
+
+    // Replaced on every write so a load racing an invalidation is never served.
+    // Values come from one global sequence, so a generation dropped by eviction
+    // and recreated later never matches the entries cached under the old one.
+    private final Cache<String, Long> generations;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter invalidations;
+
+    public AnalyticsCache(@Value("${app.analytics.cache.max-size:10000}") long maxSize,
+                          @Value("${app.analytics.cache.ttl-seconds:300}") long ttlSeconds,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        // Once the TTL has passed nothing is cached under the generation any more
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "analytics");
+        this.invalidations = Counter.builder("analytics.cache.invalidations")
+                .description("Per-user analytics cache invalidations caused by writes")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String userId, String endpoint, Object params, Supplier<T> loader) {
+        Key key = new Key(userId, generations.get(userId, k -> sequence.incrementAndGet()), endpoint, String.valueOf(params));
+        return (T) cache.get(key, k -> loader.get());
+    }
+
+    public void evictUser(String userId) {
+        // The user's old entries become unreachable and age out with size eviction
+        generations.put(userId, sequence.incrementAndGet());
+        invalidations.increment();
+    }
+}
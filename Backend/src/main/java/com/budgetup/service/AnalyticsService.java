@@ -1,5 +1,6 @@
 package com.budgetup.service;
 
+import com.budgetup.model.MonthlyRollup;
 import com.budgetup.model.Transaction;
 import com.budgetup.model.Goal;
 import com.budgetup.repository.TransactionRepository;
@@ -8,46 +9,53 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AnalyticsService {
 
+    private static final int MAX_TREND_MONTHS = 600;
+
+    private static final double ROUNDING_EPSILON = 1e-9;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
     @Autowired
     private GoalRepository goalRepository;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private AnalyticsCache analyticsCache;
+
     public Map<String, Object> getOverview(String userId, String period) {
-        LocalDate start;
-        LocalDate end = LocalDate.now();
+        return analyticsCache.get(userId, "overview", period, () -> computeOverview(userId, period));
+    }
 
-        switch (period) {
-            case "week":
-                start = end.minusWeeks(1);
-                break;
-            case "year":
-                start = end.minusYears(1);
-                break;
-            default: // month
-                start = end.withDayOfMonth(1);
-                break;
-        }
+    public List<Map<String, Object>> getSpendingTrends(String userId, int months) {
+        YearMonth to = YearMonth.now();
+        return getSpendingTrends(userId, to.minusMonths(Math.max(months, 1) - 1), to);
+    }
 
-        List<Transaction> transactions = transactionRepository
-                .findByUserIdAndDateBetweenOrderByDateDesc(userId, start, end);
+    public List<Map<String, Object>> getSpendingTrends(String userId, YearMonth from, YearMonth to) {
+        return analyticsCache.get(userId, "spending-trends", from + ".." + to,
+                () -> computeSpendingTrends(userId, from, to));
+    }
 
-        double totalIncome = transactions.stream()
-                .filter(t -> "income".equals(t.getType()))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    public List<Map<String, Object>> getCategoryInsights(String userId, String period) {
+        return analyticsCache.get(userId, "category-insights", period,
+                () -> computeCategoryInsights(userId, period));
+    }
 
-        double totalExpenses = transactions.stream()
-                .filter(t -> "expense".equals(t.getType()))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+    private Map<String, Object> computeOverview(String userId, String period) {
+        TransactionTotals totals = totalsForPeriod(userId, period);
+        double totalIncome = totals.getIncome();
+        double totalExpenses = totals.getExpense();
 
         double savingsRate = totalIncome > 0 ? ((totalIncome - totalExpenses) / totalIncome) * 100 : 0;
 
@@ -56,35 +64,36 @@ public class AnalyticsService {
         overview.put("totalExpenses", totalExpenses);
         overview.put("netSavings", totalIncome - totalExpenses);
         overview.put("savingsRate", Math.round(savingsRate));
-        overview.put("transactionCount", transactions.size());
+        overview.put("transactionCount", totals.getCount());
 
         return overview;
     }
 
-    public List<Map<String, Object>> getSpendingTrends(String userId, int months) {
-        List<Map<String, Object>> trends = new ArrayList<>();
-        LocalDate now = LocalDate.now();
-
-        for (int i = months - 1; i >= 0; i--) {
-            LocalDate monthStart = now.minusMonths(i).withDayOfMonth(1);
-            LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
-
-            List<Transaction> monthTx = transactionRepository
-                    .findByUserIdAndDateBetweenOrderByDateDesc(userId, monthStart, monthEnd);
+    private List<Map<String, Object>> computeSpendingTrends(String userId, YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Trend range start must not be after its end");
+        }
+        if (ChronoUnit.MONTHS.between(from, to) >= MAX_TREND_MONTHS) {
+            throw new RuntimeException("Trend range cannot exceed " + MAX_TREND_MONTHS + " months");
+        }
 
-            double income = monthTx.stream()
-                    .filter(t -> "income".equals(t.getType()))
-                    .mapToDouble(Transaction::getAmount)
-                    .sum();
+        // One indexed read of the rollups covering the window, folded per month
+        Map<YearMonth, double[]> buckets = new HashMap<>();
+        for (MonthlyRollup rollup : rollupService.getRollups(userId, from, to)) {
+            double[] bucket = buckets.computeIfAbsent(YearMonth.of(rollup.getYear(), rollup.getMonth()), k -> new double[2]);
+            bucket[0] += rollup.getIncome();
+            bucket[1] += rollup.getExpense();
+        }
 
-            double expenses = monthTx.stream()
-                    .filter(t -> "expense".equals(t.getType()))
-                    .mapToDouble(Transaction::getAmount)
-                    .sum();
+        List<Map<String, Object>> trends = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            double[] bucket = buckets.getOrDefault(month, new double[2]);
+            double income = bucket[0];
+            double expenses = bucket[1];
 
             Map<String, Object> trend = new HashMap<>();
-            trend.put("month", monthStart.getMonth().toString());
-            trend.put("year", monthStart.getYear());
+            trend.put("month", month.getMonth().toString());
+            trend.put("year", month.getYear());
             trend.put("income", income);
             trend.put("expenses", expenses);
             trend.put("savings", income - expenses);
@@ -95,47 +104,54 @@ public class AnalyticsService {
         return trends;
     }
 
-    public List<Map<String, Object>> getCategoryInsights(String userId, String period) {
-        LocalDate start;
+    private List<Map<String, Object>> computeCategoryInsights(String userId, String period) {
+        TransactionTotals totals = totalsForPeriod(userId, period);
+        double totalExpenses = totals.getExpense();
+
+        List<Map<String, Object>> insights = new ArrayList<>();
+        totals.forEachCategory((category, amount) -> {
+            // Rollups accumulate +/- increments, so an emptied bucket may hold float dust
+            if (amount <= ROUNDING_EPSILON) {
+                return;
+            }
+
+            Map<String, Object> insight = new HashMap<>();
+            insight.put("category", category);
+            insight.put("amount", amount);
+            insight.put("percentage", totalExpenses > 0
+                    ? Math.round((amount / totalExpenses) * 100) : 0);
+            insights.add(insight);
+        });
+
+        insights.sort(Comparator.comparingDouble((Map<String, Object> insight) -> (Double) insight.get("amount")).reversed());
+        return insights;
+    }
+
+    /**
+     * Totals for the calendar month come from the rollups; the trailing week and
+     * year windows stream a four-field projection of the raw transactions.
+     */
+    private TransactionTotals totalsForPeriod(String userId, String period) {
+        TransactionTotals totals = new TransactionTotals();
+
+        if (isCalendarMonth(period)) {
+            YearMonth month = YearMonth.now();
+            for (MonthlyRollup rollup : rollupService.getRollups(userId, month, month)) {
+                totals.addBucket(rollup.getCategory(), rollup.getIncome(), rollup.getExpense(), rollup.getCount());
+            }
+            return totals;
+        }
+
         LocalDate end = LocalDate.now();
+        LocalDate start = "week".equals(period) ? end.minusWeeks(1) : end.minusYears(1);
 
-        switch (period) {
-            case "week":
-                start = end.minusWeeks(1);
-                break;
-            case "year":
-                start = end.minusYears(1);
-                break;
-            default:
-                start = end.withDayOfMonth(1);
-                break;
+        try (Stream<Transaction> transactions = transactionRepository.streamAnalyticsFields(userId, start, end)) {
+            transactions.forEach(t -> totals.add(t.getType(), t.getAmount(), t.getCategory()));
         }
+        return totals;
+    }
 
-        List<Transaction> transactions = transactionRepository
-                .findByUserIdAndDateBetweenOrderByDateDesc(userId, start, end);
-
-        double totalExpenses = transactions.stream()
-                .filter(t -> "expense".equals(t.getType()))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
-
-        Map<String, Double> categoryTotals = transactions.stream()
-                .filter(t -> "expense".equals(t.getType()))
-                .collect(Collectors.groupingBy(
-                        Transaction::getCategory,
-                        Collectors.summingDouble(Transaction::getAmount)
-                ));
-
-        return categoryTotals.entrySet().stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .map(entry -> {
-                    Map<String, Object> insight = new HashMap<>();
-                    insight.put("category", entry.getKey());
-                    insight.put("amount", entry.getValue());
-                    insight.put("percentage", totalExpenses > 0
-                            ? Math.round((entry.getValue() / totalExpenses) * 100) : 0);
-                    return insight;
-                })
-                .collect(Collectors.toList());
+    private boolean isCalendarMonth(String period) {
+        return !"week".equals(period) && !"year".equals(period);
     }
 }
@@ -1,13 +1,14 @@
 package com.budgetup.service;
 
+import com.budgetup.exception.ServiceUnavailableException;
 import com.budgetup.model.User;
 import com.budgetup.model.enums.AuthProvider;
 import com.budgetup.payload.request.LoginRequest;
 import com.budgetup.payload.request.SignupRequest;
 import com.budgetup.repository.UserRepository;
+import com.budgetup.security.UserDetailsServiceImpl;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -19,11 +20,17 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     public User signup(@Valid SignupRequest signupRequest) {
         // Check if email already exists
         if (userRepository.existsByEmail(signupRequest.getEmail())) {
@@ -35,7 +42,7 @@ public class AuthService {
         user.setEmail(signupRequest.getEmail());
         user.setName(signupRequest.getName());
         user.setFullName(signupRequest.getName());
-        user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
+        user.setPassword(passwordHashingService.encode(signupRequest.getPassword()));
         user.setAuthProvider(AuthProvider.LOCAL);
         user.setIsOnboarded(false);
         user.setIsPasswordSet(true);
@@ -51,10 +58,25 @@ public class AuthService {
                 .orElseThrow(() -> new RuntimeException("Invalid email or password"));
 
         // Verify password
-        if (user.getPassword() == null || !passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (user.getPassword() == null || !passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid email or password");
         }
 
+        // Re-hash with the configured cost while the plain password is at hand
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            try {
+                // Only the hash is written, and only if no password change landed during the check
+                String newHash = passwordHashingService.encode(loginRequest.getPassword());
+                if (userRepository.replacePassword(user.getId(), user.getPassword(), newHash)) {
+                    user.setPassword(newHash);
+                    userDetailsService.evict(user.getId());
+                    resourceVersions.bump(user.getId(), ResourceVersions.Collection.USER);
+                }
+            } catch (ServiceUnavailableException e) {
+                // Not worth failing the login over; try again next time
+            }
+        }
+
         return user;
     }
 
@@ -1,14 +1,20 @@
 package com.budgetup.service;
 
 import com.budgetup.model.Budget;
+import com.budgetup.model.Transaction;
 import com.budgetup.payload.request.BudgetRequest;
 import com.budgetup.repository.BudgetRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class BudgetService {
@@ -16,6 +22,15 @@ public class BudgetService {
     @Autowired
     private BudgetRepository budgetRepository;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     public List<Budget> getAllBudgets(String userId) {
         return budgetRepository.findByUserId(userId);
     }
@@ -34,7 +49,6 @@ public class BudgetService {
         budget.setUserId(userId);
         budget.setCategory(request.getCategory());
         budget.setLimit(request.getLimit());
-        budget.setSpent(0.0);
 
         if (request.getMonth() != null && request.getYear() != null) {
             budget.setMonth(request.getMonth());
@@ -45,35 +59,163 @@ public class BudgetService {
             budget.setYear(now.getYear());
         }
 
+        budget.setSpent(0.0);
         budget.setCreatedAt(LocalDateTime.now());
         budget.setUpdatedAt(LocalDateTime.now());
-
-        return budgetRepository.save(budget);
+        budget.setSyncVersion(syncService.nextVersion(userId));
+
+        try {
+            Budget saved = budgetRepository.insert(budget);
+
+            // Expenses recorded before the budget existed still count against it. They are
+            // added once it is stored, so an expense posted meanwhile increments it directly
+            // rather than missing a budget that is not there yet.
+            double spent = spentFromRollups(saved);
+            if (spent != 0) {
+                Budget current = budgetRepository.findAndUpdateOwned(userId, saved.getId(), new Update()
+                        .inc("spent", spent)
+                        .max("syncVersion", saved.getSyncVersion()));
+                if (current == null) {
+                    throw new RuntimeException("Budget not found");
+                }
+                saved.setSpent((current.getSpent() != null ? current.getSpent() : 0.0) + spent);
+            }
+
+            resourceVersions.bump(userId, ResourceVersions.Collection.BUDGETS);
+            return saved;
+        } finally {
+            syncService.release(userId, budget.getSyncVersion());
+        }
     }
 
     public Budget updateBudget(String userId, String id, BudgetRequest request) {
-        Budget budget = budgetRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Budget not found"));
+        LocalDateTime now = LocalDateTime.now();
+        long version = syncService.nextVersion(userId);
+        try {
+            return applyUpdate(userId, id, request, now, version);
+        } finally {
+            syncService.release(userId, version);
+        }
+    }
+
+    private Budget applyUpdate(String userId, String id, BudgetRequest request, LocalDateTime now, long version) {
+        Update update = new Update().set("updatedAt", now).set("syncVersion", version);
+        if (request.getCategory() != null) update.set("category", request.getCategory());
+        if (request.getLimit() != null) update.set("limit", request.getLimit());
 
-        if (!budget.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized");
+        Budget budget = budgetRepository.findAndUpdateOwned(userId, id, update);
+        if (budget == null) {
+            throw new RuntimeException("Budget not found");
         }
 
-        if (request.getCategory() != null) budget.setCategory(request.getCategory());
         if (request.getLimit() != null) budget.setLimit(request.getLimit());
-        budget.setUpdatedAt(LocalDateTime.now());
+        budget.setUpdatedAt(now);
+        budget.setSyncVersion(version);
+
+        if (request.getCategory() != null && !request.getCategory().equals(budget.getCategory())) {
+            // Spent follows the category. It is moved by a delta rather than overwritten,
+            // so expenses of the new category that land on the budget meanwhile are kept.
+            double previousSpent = budget.getSpent() != null ? budget.getSpent() : 0.0;
+            budget.setCategory(request.getCategory());
+            double delta = spentFromRollups(budget) - previousSpent;
+
+            // Still pending under the same version, so no sync moves past it before this lands
+            Budget current = budgetRepository.findAndUpdateOwned(userId, id, new Update()
+                    .inc("spent", delta)
+                    .max("syncVersion", budget.getSyncVersion()));
+            if (current == null) {
+                throw new RuntimeException("Budget not found");
+            }
+            budget.setSpent((current.getSpent() != null ? current.getSpent() : 0.0) + delta);
+        }
 
-        return budgetRepository.save(budget);
+        resourceVersions.bump(userId, ResourceVersions.Collection.BUDGETS);
+        return budget;
     }
 
     public void deleteBudget(String userId, String id) {
-        Budget budget = budgetRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Budget not found"));
+        if (!budgetRepository.deleteOwned(userId, id)) {
+            throw new RuntimeException("Budget not found");
+        }
+        syncService.release(userId, syncService.recordDeleted(userId, SyncService.BUDGET, id));
+        resourceVersions.bump(userId, ResourceVersions.Collection.BUDGETS);
+    }
 
-        if (!budget.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized");
+    public void recordCreated(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    /**
+     * Applies the expenses of a batch of new transactions with one bulk write,
+     * one increment per affected budget.
+     */
+    public void recordCreated(List<Transaction> transactions) {
+        Map<String, Budget> deltas = new HashMap<>();
+        for (Transaction t : transactions) {
+            double expense = expenseOf(t);
+            if (expense == 0 || t.getDate() == null) {
+                continue;
+            }
+
+            Budget delta = deltas.computeIfAbsent(
+                    t.getUserId() + "|" + t.getCategory() + "|" + YearMonth.from(t.getDate()), k -> {
+                        Budget budget = new Budget();
+                        budget.setUserId(t.getUserId());
+                        budget.setCategory(t.getCategory());
+                        budget.setMonth(t.getDate().getMonthValue());
+                        budget.setYear(t.getDate().getYear());
+                        budget.setSpent(0.0);
+                        budget.setSyncVersion(0L);
+                        return budget;
+                    });
+            delta.setSpent(delta.getSpent() + expense);
+            delta.setSyncVersion(Math.max(delta.getSyncVersion(), t.getSyncVersion()));
+        }
+
+        budgetRepository.incrementSpentAll(deltas.values());
+    }
+
+    public void recordDeleted(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    public void recordUpdated(Transaction before, Transaction after) {
+        boolean sameBudget = before.getDate() != null && after.getDate() != null
+                && YearMonth.from(before.getDate()).equals(YearMonth.from(after.getDate()))
+                && Objects.equals(before.getCategory(), after.getCategory());
+
+        if (sameBudget) {
+            double delta = expenseOf(after) - expenseOf(before);
+            if (delta != 0) {
+                budgetRepository.incrementSpent(after.getUserId(), after.getCategory(),
+                        after.getDate().getMonthValue(), after.getDate().getYear(), delta, after.getSyncVersion());
+            }
+            return;
         }
 
-        budgetRepository.deleteById(id);
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    // Only expenses count against a budget; income leaves spent untouched
+    private void apply(Transaction transaction, int sign) {
+        double expense = expenseOf(transaction);
+        if (expense == 0 || transaction.getDate() == null) {
+            return;
+        }
+
+        budgetRepository.incrementSpent(transaction.getUserId(), transaction.getCategory(),
+                transaction.getDate().getMonthValue(), transaction.getDate().getYear(), sign * expense,
+                transaction.getSyncVersion());
+    }
+
+    private double expenseOf(Transaction transaction) {
+        return "expense".equals(transaction.getType()) && transaction.getAmount() != null
+                ? transaction.getAmount() : 0.0;
+    }
+
+    private double spentFromRollups(Budget budget) {
+        return rollupService.getExpense(budget.getUserId(),
+                YearMonth.of(budget.getYear(), budget.getMonth()), budget.getCategory());
     }
 }
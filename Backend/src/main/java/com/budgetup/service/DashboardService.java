@@ -0,0 +1,122 @@
+package com.budgetup.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Assembles everything the dashboard shows in one call. The sections run
+ * concurrently under one shared timeout; a section that fails, times out or is
+ * rejected by the saturated pool is returned as null and listed under
+ * "degraded" instead of failing the whole response.
+ */
+@Service
+public class DashboardService {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Value("${app.dashboard.section-timeout-ms:2000}")
+    private long sectionTimeoutMs;
+
+    private final ThreadPoolExecutor dashboardExecutor;
+
+    /**
+     * Sections run on a bounded pool. When its queue is full a section is
+     * rejected and reported as degraded, so overload never runs sections on
+     * the request thread where the timeout could not bound them.
+     */
+    public DashboardService(@Value("${app.dashboard.pool-size:8}") int poolSize,
+                            @Value("${app.dashboard.queue-capacity:200}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dashboardExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.dashboardExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dashboardExecutor.shutdown();
+    }
+
+    public Map<String, Object> getDashboard(String userId, String period, int months) {
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+        sections.put("overview", () -> analyticsService.getOverview(userId, period));
+        sections.put("spendingTrends", () -> analyticsService.getSpendingTrends(userId, months));
+        sections.put("categoryInsights", () -> analyticsService.getCategoryInsights(userId, period));
+        sections.put("budgets", () -> budgetService.getCurrentMonthBudgets(userId));
+        sections.put("goals", () -> goalService.getAllGoals(userId));
+
+        Map<String, Future<Object>> futures = new LinkedHashMap<>();
+        List<String> degraded = new ArrayList<>();
+        sections.forEach((name, section) -> {
+            try {
+                futures.put(name, dashboardExecutor.submit(section::get));
+            } catch (RejectedExecutionException e) {
+                System.err.println("Dashboard section '" + name + "' unavailable: pool is saturated");
+                futures.put(name, null);
+            }
+        });
+
+        // One deadline for all sections, since they run side by side
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+
+        futures.forEach((name, future) -> {
+            if (future == null) {
+                dashboard.put(name, null);
+                degraded.add(name);
+                return;
+            }
+
+            try {
+                dashboard.put(name, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // Interrupt the section so it stops holding a pool thread
+                future.cancel(true);
+                System.err.println("Dashboard section '" + name + "' timed out");
+                dashboard.put(name, null);
+                degraded.add(name);
+            } catch (ExecutionException e) {
+                System.err.println("Dashboard section '" + name + "' failed: " + e.getCause().getMessage());
+                dashboard.put(name, null);
+                degraded.add(name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                dashboard.put(name, null);
+                degraded.add(name);
+            }
+        });
+
+        dashboard.put("degraded", degraded);
+        return dashboard;
+    }
+}
@@ -0,0 +1,191 @@
+package com.budgetup.service;
+
+import com.budgetup.model.Goal;
+import com.budgetup.model.MonthlyRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo forecast of when a goal will be reached. Each simulated path
+ * starts from the goal's current amount and adds one month of net savings at a
+ * time, drawn at random from the user's own past months, until the target is
+ * reached or the horizon runs out.
+ */
+@Service
+public class GoalForecastService {
+
+    private static final int MIN_HISTORY_MONTHS = 3;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Value("${app.goals.forecast.paths:10000}")
+    private int paths;
+
+    @Value("${app.goals.forecast.history-months:24}")
+    private int historyMonths;
+
+    @Value("${app.goals.forecast.horizon-months:120}")
+    private int horizonMonths;
+
+    public Map<String, Object> forecast(String userId, String goalId) {
+        Goal goal = goalService.getGoalById(userId, goalId);
+        double current = goal.getCurrentAmount() != null ? goal.getCurrentAmount() : 0.0;
+        double target = goal.getTargetAmount() != null ? goal.getTargetAmount() : 0.0;
+
+        YearMonth thisMonth = YearMonth.now();
+        double[] history = monthlyNetSavings(userId, thisMonth);
+
+        Map<String, Object> forecast = new LinkedHashMap<>();
+        forecast.put("goalId", goal.getId());
+        forecast.put("currentAmount", current);
+        forecast.put("targetAmount", target);
+        forecast.put("deadline", goal.getDeadline() != null ? goal.getDeadline().toString() : null);
+        forecast.put("historyMonths", history.length);
+
+        double totalNet = 0;
+        for (double net : history) {
+            totalNet += net;
+        }
+        forecast.put("averageMonthlyNet", history.length > 0 ? totalNet / history.length : 0.0);
+
+        if (current >= target) {
+            String today = LocalDate.now().toString();
+            forecast.put("probabilityByDeadline", 1.0);
+            forecast.put("completionDates", Map.of("p10", today, "p50", today, "p90", today));
+            forecast.put("simulations", 0);
+            return forecast;
+        }
+
+        if (history.length < MIN_HISTORY_MONTHS) {
+            forecast.put("probabilityByDeadline", null);
+            forecast.put("completionDates", null);
+            forecast.put("simulations", 0);
+            forecast.put("message", "Not enough transaction history to forecast");
+            return forecast;
+        }
+
+        // histogram[m] = paths that reach the target after m months; the last slot counts paths that never do
+        int[] histogram = simulate(history, target - current);
+
+        if (goal.getDeadline() != null) {
+            long monthsToDeadline = ChronoUnit.MONTHS.between(thisMonth, YearMonth.from(goal.getDeadline()));
+            int reached = 0;
+            for (int m = 1; m <= Math.min(monthsToDeadline, horizonMonths); m++) {
+                reached += histogram[m];
+            }
+            forecast.put("probabilityByDeadline", (double) reached / paths);
+        } else {
+            forecast.put("probabilityByDeadline", null);
+        }
+
+        Map<String, Object> completionDates = new HashMap<>();
+        completionDates.put("p10", percentileDate(histogram, 0.10, thisMonth));
+        completionDates.put("p50", percentileDate(histogram, 0.50, thisMonth));
+        completionDates.put("p90", percentileDate(histogram, 0.90, thisMonth));
+        forecast.put("completionDates", completionDates);
+        forecast.put("simulations", paths);
+
+        return forecast;
+    }
+
+    /**
+     * Net savings (income minus expense) of each complete month in the history
+     * window, starting with the user's first month with any activity.
+     */
+    private double[] monthlyNetSavings(String userId, YearMonth thisMonth) {
+        YearMonth to = thisMonth.minusMonths(1);
+        YearMonth from = thisMonth.minusMonths(historyMonths);
+        List<MonthlyRollup> rollups = rollupService.getRollups(userId, from, to);
+        if (rollups.isEmpty()) {
+            return new double[0];
+        }
+
+        double[] net = new double[historyMonths];
+        int first = historyMonths;
+        for (MonthlyRollup rollup : rollups) {
+            int index = (int) ChronoUnit.MONTHS.between(from, YearMonth.of(rollup.getYear(), rollup.getMonth()));
+            double income = rollup.getIncome() != null ? rollup.getIncome() : 0.0;
+            double expense = rollup.getExpense() != null ? rollup.getExpense() : 0.0;
+            net[index] += income - expense;
+            first = Math.min(first, index);
+        }
+
+        double[] history = new double[historyMonths - first];
+        System.arraycopy(net, first, history, 0, history.length);
+        return history;
+    }
+
+    /**
+     * Runs all paths split into one chunk per core. Each chunk has its own
+     * random stream and histogram, so paths allocate nothing and chunks share
+     * no state until the histograms are summed.
+     */
+    private int[] simulate(double[] history, double remaining) {
+        int chunks = Math.min(Runtime.getRuntime().availableProcessors(), paths);
+        SplittableRandom root = new SplittableRandom();
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = root.split();
+        }
+
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    int chunkPaths = paths / chunks + (chunk < paths % chunks ? 1 : 0);
+                    return simulateChunk(history, remaining, chunkPaths, randoms[chunk]);
+                })
+                .reduce((a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                    return a;
+                })
+                .orElseGet(() -> new int[horizonMonths + 2]);
+    }
+
+    private int[] simulateChunk(double[] history, double remaining, int chunkPaths, SplittableRandom random) {
+        int[] histogram = new int[horizonMonths + 2];
+        for (int path = 0; path < chunkPaths; path++) {
+            double saved = 0;
+            int month = 1;
+            for (; month <= horizonMonths; month++) {
+                saved += history[random.nextInt(history.length)];
+                if (saved >= remaining) {
+                    break;
+                }
+            }
+            histogram[month]++;
+        }
+        return histogram;
+    }
+
+    /**
+     * End of the month by which the given share of paths has reached the
+     * target, or null if that does not happen within the horizon.
+     */
+    private String percentileDate(int[] histogram, double percentile, YearMonth thisMonth) {
+        long needed = (long) Math.ceil(percentile * paths);
+        long reached = 0;
+        for (int m = 1; m <= horizonMonths; m++) {
+            reached += histogram[m];
+            if (reached >= needed) {
+                return thisMonth.plusMonths(m).atEndOfMonth().toString();
+            }
+        }
+        return null;
+    }
+}
@@ -1,22 +1,39 @@
 package com.budgetup.service;
 
 import com.budgetup.model.Goal;
+import com.budgetup.model.GoalContribution;
 import com.budgetup.payload.request.GoalRequest;
+import com.budgetup.repository.GoalContributionRepository;
 import com.budgetup.repository.GoalRepository;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class GoalService {
 
+    private static final double DAYS_PER_MONTH = 365.25 / 12;
+
     @Autowired
     private GoalRepository goalRepository;
 
+    @Autowired
+    private GoalContributionRepository goalContributionRepository;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     public List<Goal> getAllGoals(String userId) {
         return goalRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
@@ -48,60 +65,149 @@ public class GoalService {
 
         goal.setCreatedAt(LocalDateTime.now());
         goal.setUpdatedAt(LocalDateTime.now());
-
-        return goalRepository.save(goal);
+        goal.setSyncVersion(syncService.nextVersion(userId));
+
+        try {
+            Goal saved = goalRepository.save(goal);
+            resourceVersions.bump(userId, ResourceVersions.Collection.GOALS);
+            return saved;
+        } finally {
+            syncService.release(userId, goal.getSyncVersion());
+        }
     }
 
     public Goal updateGoal(String userId, String id, GoalRequest request) {
-        Goal goal = getGoalById(userId, id);
-
-        if (request.getName() != null) goal.setName(request.getName());
-        if (request.getDescription() != null) goal.setDescription(request.getDescription());
-        if (request.getTargetAmount() != null) goal.setTargetAmount(request.getTargetAmount());
-        if (request.getCurrentAmount() != null) goal.setCurrentAmount(request.getCurrentAmount());
-        if (request.getCategory() != null) goal.setCategory(request.getCategory());
+        Map<String, Object> fields = new HashMap<>();
+        if (request.getName() != null) fields.put("name", request.getName());
+        if (request.getDescription() != null) fields.put("description", request.getDescription());
+        if (request.getTargetAmount() != null) fields.put("targetAmount", request.getTargetAmount());
+        if (request.getCurrentAmount() != null) fields.put("currentAmount", request.getCurrentAmount());
+        if (request.getCategory() != null) fields.put("category", request.getCategory());
         if (request.getDeadline() != null && !request.getDeadline().isEmpty()) {
-            goal.setDeadline(LocalDate.parse(request.getDeadline()));
+            fields.put("deadline", LocalDate.parse(request.getDeadline()));
         }
-
-        // Auto-achieve if target met
-        if (goal.getCurrentAmount() >= goal.getTargetAmount()) {
-            goal.setStatus("ACHIEVED");
+        long version = syncService.nextVersion(userId);
+        fields.put("syncVersion", version);
+
+        // Auto-achieve if target met happens inside the same update
+        Goal goal;
+        try {
+            goal = goalRepository.updateOwned(userId, id, fields);
+        } finally {
+            syncService.release(userId, version);
         }
-
-        goal.setUpdatedAt(LocalDateTime.now());
-        return goalRepository.save(goal);
+        if (goal == null) {
+            throw new RuntimeException("Goal not found");
+        }
+        resourceVersions.bump(userId, ResourceVersions.Collection.GOALS);
+        return goal;
     }
 
     public Goal addContribution(String userId, String id, Double amount) {
-        Goal goal = getGoalById(userId, id);
-
-        goal.setCurrentAmount(goal.getCurrentAmount() + amount);
+        if (amount == null) {
+            throw new RuntimeException("Amount is required");
+        }
 
-        // Auto-achieve if target met
-        if (goal.getCurrentAmount() >= goal.getTargetAmount()) {
-            goal.setStatus("ACHIEVED");
+        // The ledger entry comes first, so the balance never moves without one
+        GoalContribution contribution = new GoalContribution();
+        contribution.setId(new ObjectId().toHexString());
+        contribution.setGoalId(id);
+        contribution.setUserId(userId);
+        contribution.setAmount(amount);
+        contribution.setCreatedAt(LocalDateTime.now());
+        goalContributionRepository.insert(contribution);
+
+        // Increment and auto-achieve happen in one atomic update, keyed by the entry
+        long version = syncService.nextVersion(userId);
+        Goal goal;
+        try {
+            try {
+                goal = goalRepository.addContribution(userId, id, contribution.getId(), amount, version);
+            } catch (RuntimeException e) {
+                // The first attempt may have landed; the key makes a second one a no-op then
+                goal = goalRepository.addContribution(userId, id, contribution.getId(), amount, version);
+            }
+        } finally {
+            syncService.release(userId, version);
+        }
+        if (goal == null) {
+            goalContributionRepository.deleteById(contribution.getId());
+            throw new RuntimeException("Goal not found");
         }
 
-        goal.setUpdatedAt(LocalDateTime.now());
-        return goalRepository.save(goal);
+        contribution.setBalanceAfter(goal.getCurrentAmount());
+        goalContributionRepository.save(contribution);
+        resourceVersions.bump(userId, ResourceVersions.Collection.GOALS);
+
+        return goal;
     }
 
-    public void deleteGoal(String userId, String id) {
+    public List<GoalContribution> getContributions(String userId, String id) {
         Goal goal = getGoalById(userId, id);
-        goalRepository.deleteById(goal.getId());
+        return goalContributionRepository.findByGoalIdOrderByCreatedAtAsc(goal.getId());
+    }
+
+    public void deleteGoal(String userId, String id) {
+        if (!goalRepository.deleteOwned(userId, id)) {
+            throw new RuntimeException("Goal not found");
+        }
+        goalContributionRepository.deleteByGoalId(id);
+        syncService.release(userId, syncService.recordDeleted(userId, SyncService.GOAL, id));
+        resourceVersions.bump(userId, ResourceVersions.Collection.GOALS);
     }
 
     public Map<String, Object> getGoalProgress(String userId, String id) {
         Goal goal = getGoalById(userId, id);
-        double progress = goal.getTargetAmount() > 0
-                ? (goal.getCurrentAmount() / goal.getTargetAmount()) * 100
-                : 0;
-
-        return Map.of(
-                "goal", goal,
-                "progress", Math.min(progress, 100),
-                "remaining", Math.max(goal.getTargetAmount() - goal.getCurrentAmount(), 0)
-        );
+        Map<String, Object> progress = progressOf(goal);
+        progress.put("goal", goal);
+        return progress;
+    }
+
+    /**
+     * Progress of all of the user's goals, optionally only those with the given
+     * status, from a single query.
+     */
+    public List<Map<String, Object>> getAllGoalProgress(String userId, String status) {
+        List<Goal> goals = status != null
+                ? goalRepository.findByUserIdAndStatus(userId, status)
+                : goalRepository.findByUserIdOrderByCreatedAtDesc(userId);
+
+        List<Map<String, Object>> result = new ArrayList<>(goals.size());
+        LocalDate today = LocalDate.now();
+        for (Goal goal : goals) {
+            Map<String, Object> progress = progressOf(goal, today);
+            progress.put("goalId", goal.getId());
+            progress.put("name", goal.getName());
+            progress.put("status", goal.getStatus());
+            result.add(progress);
+        }
+        return result;
+    }
+
+    private Map<String, Object> progressOf(Goal goal) {
+        return progressOf(goal, LocalDate.now());
+    }
+
+    private Map<String, Object> progressOf(Goal goal, LocalDate today) {
+        double target = goal.getTargetAmount() != null ? goal.getTargetAmount() : 0.0;
+        double current = goal.getCurrentAmount() != null ? goal.getCurrentAmount() : 0.0;
+        double progress = target > 0 ? (current / target) * 100 : 0;
+        double remaining = Math.max(target - current, 0);
+
+        Long daysToDeadline = null;
+        Double requiredMonthly = null;
+        if (goal.getDeadline() != null) {
+            daysToDeadline = ChronoUnit.DAYS.between(today, goal.getDeadline());
+            // Whatever is left is due at once when the deadline is less than a month away
+            double monthsLeft = Math.max(daysToDeadline / DAYS_PER_MONTH, 1);
+            requiredMonthly = remaining / monthsLeft;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("progress", Math.min(progress, 100));
+        result.put("remaining", remaining);
+        result.put("daysToDeadline", daysToDeadline);
+        result.put("requiredMonthlyContribution", requiredMonthly);
+        return result;
     }
 }
@@ -3,16 +3,19 @@ package com.budgetup.service;
 import com.budgetup.model.User;
 import com.budgetup.model.enums.AuthProvider;
 import com.budgetup.repository.UserRepository;
+import com.budgetup.security.GooglePublicKeySource;
+import com.budgetup.security.UserDetailsServiceImpl;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.security.PublicKey;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -27,14 +30,24 @@ public class GoogleTokenVerifierService {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private GooglePublicKeySource publicKeySource;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+
+    private static final long CLOCK_SKEW_SECONDS = 300;
+
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+
     public User verifyAndGetUser(String idTokenString) {
         try {
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(), GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(clientId))
-                    .build();
-
-            GoogleIdToken idToken = verifier.verify(idTokenString);
+            GoogleIdToken idToken = verify(idTokenString);
 
             if (idToken != null) {
                 GoogleIdToken.Payload payload = idToken.getPayload();
@@ -50,7 +63,10 @@ public class GoogleTokenVerifierService {
                     User user = existingUser.get();
                     if (picture != null) user.setProfilePicture(picture);
                     user.setUpdatedAt(LocalDateTime.now());
-                    return userRepository.save(user);
+                    User saved = userRepository.save(user);
+                    userDetailsService.evict(saved.getId());
+                    resourceVersions.bump(saved.getId(), ResourceVersions.Collection.USER);
+                    return saved;
                 } else {
                     // Create new user
                     User newUser = new User();
@@ -76,4 +92,25 @@ public class GoogleTokenVerifierService {
     public String generateToken(User user) {
         return jwtService.generateToken(user.getId(), user.getEmail());
     }
+
+    /**
+     * Checks signature, audience, issuer and expiry locally against the cached
+     * Google keys. Returns null if the token is not valid.
+     */
+    private GoogleIdToken verify(String idTokenString) throws Exception {
+        GoogleIdToken idToken = GoogleIdToken.parse(jsonFactory, idTokenString);
+
+        if (!idToken.verifyAudience(Collections.singletonList(clientId))
+                || !idToken.verifyIssuer(ISSUERS)
+                || !idToken.verifyTime(System.currentTimeMillis(), CLOCK_SKEW_SECONDS)) {
+            return null;
+        }
+
+        for (PublicKey key : publicKeySource.getPublicKeys()) {
+            if (idToken.verifySignature(key)) {
+                return idToken;
+            }
+        }
+        return null;
+    }
 }
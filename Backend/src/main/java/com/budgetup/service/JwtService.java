@@ -1,24 +1,79 @@
 package com.budgetup.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    /**
+     * Claims of a token whose signature and expiry have been checked.
+     */
+    public record VerifiedToken(String userId, String email, Date expiresAt) {}
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
 
-    private SecretKey getSigningKey() {
+    private final SecretKey signingKey;
+
+    private final JwtParser parser;
+
+    // Recently verified tokens keyed by SHA-256 of the token; each entry
+    // expires together with its token
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtService(@Value("${jwt.secret}") String jwtSecret,
+                      @Value("${jwt.expiration}") long jwtExpiration,
+                      @Value("${app.jwt.cache.max-size:10000}") long cacheMaxSize,
+                      MeterRegistry meterRegistry) {
+        this.jwtExpiration = jwtExpiration;
+        this.signingKey = deriveSigningKey(jwtSecret);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        long remainingMillis = token.expiresAt().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt");
+    }
+
+    private static SecretKey deriveSigningKey(String jwtSecret) {
         // Ensure the secret is at least 32 bytes for HS256
         String paddedSecret = jwtSecret;
         while (paddedSecret.getBytes(StandardCharsets.UTF_8).length < 32) {
@@ -37,29 +92,58 @@ public class JwtService {
                 .claim("email", email)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token with a single parse and returns its claims, or null if
+     * the token is malformed, badly signed or expired.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null) {
+                return null;
+            }
+
+            VerifiedToken verified = new VerifiedToken(
+                    claims.getSubject(), claims.get("email", String.class), claims.getExpiration());
+            verifiedTokens.put(key, verified);
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        return claims.getSubject();
+    public String getUserIdFromToken(String token) {
+        VerifiedToken verified = verify(token);
+        if (verified == null) {
+            throw new JwtException("Invalid JWT token");
+        }
+        return verified.userId();
     }
 
     public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    private static String hash(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
@@ -0,0 +1,132 @@
+package com.budgetup.service;
+
+import com.budgetup.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt hashing on its own bounded pool so a burst of logins or signups
+ * cannot run more hashes at once than there are pool threads. The request
+ * thread still waits for its hash, for at most the timeout; when the queue is
+ * full, or the wait runs out, the caller gets a 503 with Retry-After instead.
+ * Hash latency is published as {@code auth.password.hash} and the queue depth
+ * as {@code auth.password.queue}.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.auth.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.auth.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${app.auth.hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    private final ThreadPoolExecutor hashingExecutor;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    public PasswordHashingService(@Value("${app.auth.hashing.pool-size:0}") int poolSize,
+                                  @Value("${app.auth.hashing.queue-capacity:100}") int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashingExecutor.allowCoreThreadTimeOut(true);
+
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing or checking passwords")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing or checking passwords")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue", hashingExecutor, executor -> executor.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True if the hash was made with a different BCrypt cost than the one
+     * currently configured.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
+
+    private <T> T run(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = hashingExecutor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many sign-in requests, please retry shortly", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Too many sign-in requests, please retry shortly", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Password check interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
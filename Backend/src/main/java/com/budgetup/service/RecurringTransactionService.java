@@ -0,0 +1,261 @@
+package com.budgetup.service;
+
+import com.budgetup.model.RecurringCheckpoint;
+import com.budgetup.model.Transaction;
+import com.budgetup.repository.RecurringCheckpointRepository;
+import com.budgetup.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Generates the due monthly occurrences of recurring transactions. A recurring
+ * transaction repeats on the same day of every following month (clamped to the
+ * month's length); each occurrence is a plain transaction pointing back at it
+ * through {@code recurringTemplateId}.
+ *
+ * Users are split into {@code app.recurring.partitions} partitions by the hash
+ * of their id, which each recurring transaction stores as {@code recurringHash}
+ * so an instance only reads the templates of its own partitions. An instance
+ * only works on the partitions it holds a lease on,
+ * and records after each batch the last user it finished, so instances share
+ * the work and a restarted run resumes where it stopped. Should two instances
+ * ever process the same template, the unique (recurringTemplateId, date) index
+ * lets only one of them insert each occurrence.
+ */
+@Service
+public class RecurringTransactionService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RecurringCheckpointRepository checkpointRepository;
+
+    @Value("${app.recurring.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.recurring.partitions:16}")
+    private int partitions;
+
+    @Value("${app.recurring.batch-size:500}")
+    private int batchSize;
+
+    // Occurrences generated per template per run; a long backlog catches up over several runs
+    @Value("${app.recurring.max-per-template:24}")
+    private int maxPerTemplate;
+
+    @Value("${app.recurring.lease-seconds:600}")
+    private long leaseSeconds;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    @Scheduled(initialDelayString = "${app.recurring.initial-delay-ms:60000}",
+            fixedDelayString = "${app.recurring.interval-ms:3600000}")
+    public void materializeDue() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            int generated = run(LocalDate.now());
+            if (generated > 0) {
+                System.out.println("=== Generated " + generated + " recurring transaction occurrences ===");
+            }
+        } catch (RuntimeException e) {
+            // Progress is checkpointed, so the next run picks up from here
+            System.err.println("Recurring transaction run failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates every occurrence due on or before {@code today} for the users
+     * of the partitions this instance can lease. Returns the number inserted.
+     */
+    public int run(LocalDate today) {
+        Map<Integer, RecurringCheckpoint> held = acquirePartitions(today);
+        if (held.isEmpty()) {
+            return 0;
+        }
+
+        // Users up to the lowest checkpoint are done in every held partition
+        String resumeAfter = null;
+        if (held.values().stream().allMatch(c -> c.getLastUserId() != null)) {
+            resumeAfter = held.values().stream().map(RecurringCheckpoint::getLastUserId).min(String::compareTo).get();
+        }
+
+        Batch batch = new Batch();
+        batch.renewBy = renewBy();
+        int generated = 0;
+        try (Stream<Transaction> templates = transactionRepository.streamDueRecurring(today, resumeAfter,
+                partitions, held.keySet())) {
+            Iterator<Transaction> it = templates.iterator();
+            String userId = null;
+            while (it.hasNext()) {
+                Transaction template = it.next();
+
+                // Flush only between users so a checkpoint never covers half a user. Flushing
+                // also renews the leases, so it happens at least every half lease.
+                if (!template.getUserId().equals(userId)) {
+                    if (batch.occurrences.size() >= batchSize || System.currentTimeMillis() >= batch.renewBy) {
+                        generated += flush(batch, held, today);
+                        if (held.isEmpty()) {
+                            break;
+                        }
+                    }
+                    userId = template.getUserId();
+                }
+
+                int partition = partitionOf(userId);
+                RecurringCheckpoint checkpoint = held.get(partition);
+                if (checkpoint == null
+                        || checkpoint.getLastUserId() != null && userId.compareTo(checkpoint.getLastUserId()) <= 0) {
+                    continue;
+                }
+
+                addOccurrences(batch, template, today);
+                batch.lastUsers.put(partition, userId);
+            }
+        }
+        generated += flush(batch, held, today);
+
+        // Done for today; free the leases for whoever runs next
+        for (RecurringCheckpoint checkpoint : held.values()) {
+            if (!checkpointRepository.checkpoint(checkpoint.getId(), owner, today, checkpoint.getLastUserId(), true, new Date())) {
+                System.err.println("Lost the lease on recurring partition " + checkpoint.getId()
+                        + " before finishing it; leaving it to its new owner");
+            }
+        }
+        return generated;
+    }
+
+    private Map<Integer, RecurringCheckpoint> acquirePartitions(LocalDate today) {
+        Map<Integer, RecurringCheckpoint> held = new HashMap<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            RecurringCheckpoint checkpoint = checkpointRepository.acquire(partition, owner, leaseEnd());
+            if (checkpoint == null) {
+                continue;
+            }
+
+            if (today.equals(checkpoint.getRunDate())) {
+                if (Boolean.TRUE.equals(checkpoint.getCompleted())) {
+                    checkpointRepository.checkpoint(partition, owner, today, checkpoint.getLastUserId(), true, new Date());
+                    continue;
+                }
+            } else {
+                // A new day starts from the first user again
+                checkpoint.setRunDate(today);
+                checkpoint.setLastUserId(null);
+                checkpoint.setCompleted(false);
+            }
+            held.put(partition, checkpoint);
+        }
+        return held;
+    }
+
+    private void addOccurrences(Batch batch, Transaction template, LocalDate today) {
+        LocalDate anchor = template.getDate();
+        if (anchor == null) {
+            return;
+        }
+
+        // Occurrence n falls n months after the anchor, so month-end clamping never drifts
+        LocalDate next = template.getRecurringNextDate() != null ? template.getRecurringNextDate() : anchor.plusMonths(1);
+        long n = ChronoUnit.MONTHS.between(anchor.withDayOfMonth(1), next.withDayOfMonth(1));
+
+        int added = 0;
+        while (!next.isAfter(today) && added < maxPerTemplate) {
+            batch.occurrences.add(occurrenceOf(template, next));
+            added++;
+            next = anchor.plusMonths(++n);
+        }
+        template.setRecurringNextDate(next);
+        template.setRecurringHash(hashOf(template.getUserId()));
+        batch.templates.add(template);
+    }
+
+    private Transaction occurrenceOf(Transaction template, LocalDate date) {
+        Transaction occurrence = new Transaction();
+        occurrence.setUserId(template.getUserId());
+        occurrence.setType(template.getType());
+        occurrence.setAmount(template.getAmount());
+        occurrence.setCategory(template.getCategory());
+        occurrence.setMerchant(template.getMerchant());
+        occurrence.setDescription(template.getDescription());
+        occurrence.setDate(date);
+        occurrence.setIsRecurring(false);
+        occurrence.setRecurringTemplateId(template.getId());
+        occurrence.setCreatedAt(LocalDateTime.now());
+        occurrence.setUpdatedAt(LocalDateTime.now());
+        return occurrence;
+    }
+
+    private int flush(Batch batch, Map<Integer, RecurringCheckpoint> held, LocalDate today) {
+        int inserted = transactionService.createOccurrences(batch.occurrences).size();
+        // Templates move on only after their occurrences are stored
+        transactionRepository.setRecurringNextDates(batch.templates);
+
+        // Every held partition is renewed, not just those with users in this batch;
+        // one whose lease was lost is dropped and its templates skipped from here on
+        Iterator<RecurringCheckpoint> partitionsHeld = held.values().iterator();
+        while (partitionsHeld.hasNext()) {
+            RecurringCheckpoint checkpoint = partitionsHeld.next();
+            String lastUserId = batch.lastUsers.getOrDefault(checkpoint.getId(), checkpoint.getLastUserId());
+            if (checkpointRepository.checkpoint(checkpoint.getId(), owner, today, lastUserId, false, leaseEnd())) {
+                checkpoint.setLastUserId(lastUserId);
+            } else {
+                System.err.println("Lost the lease on recurring partition " + checkpoint.getId() + "; leaving it to its new owner");
+                partitionsHeld.remove();
+            }
+        }
+
+        batch.occurrences = new ArrayList<>();
+        batch.templates.clear();
+        batch.lastUsers.clear();
+        batch.renewBy = renewBy();
+        return inserted;
+    }
+
+    /**
+     * The non-negative hash a user's recurring transactions are partitioned by.
+     */
+    public static int hashOf(String userId) {
+        return userId.hashCode() & Integer.MAX_VALUE;
+    }
+
+    private int partitionOf(String userId) {
+        return hashOf(userId) % partitions;
+    }
+
+    private long renewBy() {
+        return System.currentTimeMillis() + Duration.ofSeconds(leaseSeconds).toMillis() / 2;
+    }
+
+    private Date leaseEnd() {
+        return new Date(System.currentTimeMillis() + Duration.ofSeconds(leaseSeconds).toMillis());
+    }
+
+    private static class Batch {
+        List<Transaction> occurrences = new ArrayList<>();
+        final List<Transaction> templates = new ArrayList<>();
+        final Map<Integer, String> lastUsers = new HashMap<>();
+        long renewBy;
+    }
+}
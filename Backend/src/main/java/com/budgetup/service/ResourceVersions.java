@@ -0,0 +1,72 @@
+package com.budgetup.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory per-user, per-collection versions that back the ETags of read
+ * endpoints. Writers bump a collection after their write has completed, and
+ * readers take the versions before they query, so a tag never describes newer
+ * data than the response it is sent with.
+ *
+ * The versions live in this process only: with more than one instance behind
+ * a load balancer a write on one node does not change the tags of another.
+ */
+@Component
+public class ResourceVersions {
+
+    public enum Collection { TRANSACTIONS, BUDGETS, GOALS, USER }
+
+    // Sequence distinguishes a user's entry from the ones evicted before it
+    private record Entry(long sequence, AtomicLongArray versions) {}
+
+    // Changes on every start so tags handed out by an earlier process never match
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Cache<String, Entry> entries;
+
+    public ResourceVersions(@Value("${app.etag.max-users:100000}") long maxUsers,
+                            MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "resource-versions");
+    }
+
+    public void bump(String userId, Collection... collections) {
+        Entry entry = entryFor(userId);
+        for (Collection collection : collections) {
+            entry.versions().incrementAndGet(collection.ordinal());
+        }
+    }
+
+    /**
+     * Returns a token that changes whenever any of the given collections of the
+     * user is written, or the process restarts.
+     */
+    public String token(String userId, Collection... collections) {
+        Entry entry = entryFor(userId);
+        StringBuilder token = new StringBuilder(epoch).append('-').append(Long.toString(entry.sequence(), 36));
+        for (Collection collection : collections) {
+            token.append('.').append(Long.toString(entry.versions().get(collection.ordinal()), 36));
+        }
+        return token.toString();
+    }
+
+    private Entry entryFor(String userId) {
+        return entries.get(userId, k ->
+                new Entry(sequence.incrementAndGet(), new AtomicLongArray(Collection.values().length)));
+    }
+}
@@ -0,0 +1,166 @@
+package com.budgetup.service;
+
+import com.budgetup.model.MonthlyRollup;
+import com.budgetup.model.MonthlyTotal;
+import com.budgetup.model.Transaction;
+import com.budgetup.repository.MonthlyRollupRepository;
+import com.budgetup.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the per-user, per-month, per-category rollups that back analytics.
+ * Every transaction write funnels through here so the rollups never need a
+ * rescan; {@link #rebuild(String)} regenerates them from the raw collection.
+ */
+@Service
+public class RollupService {
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    public List<MonthlyRollup> getRollups(String userId, YearMonth from, YearMonth to) {
+        return rollupRepository.findByUserIdAndPeriodBetween(userId,
+                Range.closed(periodOf(from), periodOf(to)));
+    }
+
+    public double getExpense(String userId, YearMonth month, String category) {
+        return rollupRepository.findByUserIdAndPeriodAndCategory(userId, periodOf(month), category)
+                .map(MonthlyRollup::getExpense)
+                .orElse(0.0);
+    }
+
+    public void recordCreated(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    /**
+     * Folds a batch of new transactions into per-bucket deltas and applies them
+     * with one bulk write, however many rows the batch has.
+     */
+    public void recordCreated(List<Transaction> transactions) {
+        Map<String, MonthlyRollup> deltas = new HashMap<>();
+        for (Transaction t : transactions) {
+            if (t.getDate() == null || t.getAmount() == null) {
+                continue;
+            }
+
+            YearMonth month = YearMonth.from(t.getDate());
+            MonthlyRollup delta = deltas.computeIfAbsent(t.getUserId() + "|" + month + "|" + t.getCategory(), k ->
+                    new MonthlyRollup(null, t.getUserId(), periodOf(month), month.getYear(), month.getMonthValue(),
+                            t.getCategory(), 0.0, 0.0, 0L, null));
+            delta.setIncome(delta.getIncome() + incomeOf(t));
+            delta.setExpense(delta.getExpense() + expenseOf(t));
+            delta.setCount(delta.getCount() + 1);
+        }
+
+        rollupRepository.incrementAll(deltas.values());
+    }
+
+    public void recordDeleted(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    /**
+     * Moves a transaction's contribution from the bucket it was in to the bucket
+     * it is in now. A change confined to one bucket is a single increment.
+     */
+    public void recordUpdated(Transaction before, Transaction after) {
+        // A transaction without an amount is not in any bucket, so only moves apply to it
+        if (sameBucket(before, after) && before.getAmount() != null && after.getAmount() != null) {
+            YearMonth month = YearMonth.from(after.getDate());
+            rollupRepository.increment(after.getUserId(), month.getYear(), month.getMonthValue(), after.getCategory(),
+                    incomeOf(after) - incomeOf(before),
+                    expenseOf(after) - expenseOf(before),
+                    0);
+            return;
+        }
+
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    /**
+     * Discards a user's rollups and regenerates them with one aggregation over
+     * their transactions. Writes racing the rebuild may be lost, so run it while
+     * the user is idle (or the application is in maintenance).
+     */
+    public int rebuild(String userId) {
+        rollupRepository.deleteByUserId(userId);
+
+        Map<String, MonthlyRollup> rollups = new LinkedHashMap<>();
+        for (MonthlyTotal total : transactionRepository.sumByMonthCategoryAndType(userId)) {
+            int period = total.getYear() * 100 + total.getMonth();
+            MonthlyRollup rollup = rollups.computeIfAbsent(period + "|" + total.getCategory(), k ->
+                    new MonthlyRollup(null, userId, period, total.getYear(), total.getMonth(),
+                            total.getCategory(), 0.0, 0.0, 0L, LocalDateTime.now()));
+
+            if ("income".equals(total.getType())) {
+                rollup.setIncome(rollup.getIncome() + total.getTotal());
+            } else if ("expense".equals(total.getType())) {
+                rollup.setExpense(rollup.getExpense() + total.getTotal());
+            }
+            rollup.setCount(rollup.getCount() + total.getCount());
+        }
+
+        rollupRepository.insert(rollups.values());
+        // Analytics tags are keyed on transactions, which the rollups summarize
+        resourceVersions.bump(userId, ResourceVersions.Collection.TRANSACTIONS);
+        return rollups.size();
+    }
+
+    public int rebuildAll() {
+        int users = 0;
+        for (String userId : transactionRepository.findDistinctUserIds()) {
+            rebuild(userId);
+            users++;
+        }
+        return users;
+    }
+
+    private void apply(Transaction transaction, int sign) {
+        if (transaction.getDate() == null || transaction.getAmount() == null) {
+            return;
+        }
+
+        YearMonth month = YearMonth.from(transaction.getDate());
+        rollupRepository.increment(transaction.getUserId(), month.getYear(), month.getMonthValue(),
+                transaction.getCategory(),
+                sign * incomeOf(transaction),
+                sign * expenseOf(transaction),
+                sign);
+    }
+
+    private boolean sameBucket(Transaction before, Transaction after) {
+        return before.getDate() != null && after.getDate() != null
+                && YearMonth.from(before.getDate()).equals(YearMonth.from(after.getDate()))
+                && Objects.equals(before.getCategory(), after.getCategory());
+    }
+
+    private double incomeOf(Transaction transaction) {
+        return "income".equals(transaction.getType()) ? transaction.getAmount() : 0.0;
+    }
+
+    private double expenseOf(Transaction transaction) {
+        return "expense".equals(transaction.getType()) ? transaction.getAmount() : 0.0;
+    }
+
+    private int periodOf(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+}
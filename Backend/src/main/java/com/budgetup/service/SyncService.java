@@ -0,0 +1,155 @@
+package com.budgetup.service;
+
+import com.budgetup.model.Budget;
+import com.budgetup.model.Goal;
+import com.budgetup.model.SyncCounter;
+import com.budgetup.model.Tombstone;
+import com.budgetup.model.Transaction;
+import com.budgetup.repository.BudgetRepository;
+import com.budgetup.repository.GoalRepository;
+import com.budgetup.repository.SyncCounterRepository;
+import com.budgetup.repository.TombstoneRepository;
+import com.budgetup.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Per-user change versions for delta sync. Every write to a transaction,
+ * budget or goal stamps the document with a fresh version from the user's
+ * counter, and every delete leaves a tombstone with one. A client that last
+ * synced at version N asks for everything stamped after N.
+ *
+ * A version is reserved before the write that carries it lands, so the
+ * counter alone can run ahead of what is stored. Each reservation stays
+ * pending until the writer releases it once every write stamped with it has
+ * landed, and a sync reports the version just below the oldest pending one.
+ * A client that resumes from there is never past a write it has not seen.
+ * A writer that dies without releasing holds syncs back only until
+ * {@code app.sync.pending-seconds} pass.
+ */
+@Service
+public class SyncService {
+
+    public static final String TRANSACTION = "transaction";
+    public static final String BUDGET = "budget";
+    public static final String GOAL = "goal";
+
+    public record Changes(long version,
+                          List<Transaction> transactions,
+                          List<Budget> budgets,
+                          List<Goal> goals,
+                          List<Tombstone> deleted) {}
+
+    @Autowired
+    private SyncCounterRepository syncCounterRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Value("${app.sync.pending-seconds:60}")
+    private long pendingSeconds;
+
+    /**
+     * Reserves a version. The caller must {@link #release} it once its
+     * writes have landed.
+     */
+    public long nextVersion(String userId) {
+        return reserveVersions(userId, 1);
+    }
+
+    /**
+     * Reserves {@code count} consecutive versions and returns the first one,
+     * which is what the caller releases once its writes have landed.
+     */
+    public long reserveVersions(String userId, int count) {
+        Date pendingUntil = new Date(System.currentTimeMillis() + pendingSeconds * 1000);
+        return syncCounterRepository.reserve(userId, count, pendingUntil) - count + 1;
+    }
+
+    /**
+     * Lets syncs move past the reservation starting at {@code version}.
+     */
+    public void release(String userId, long version) {
+        try {
+            syncCounterRepository.release(userId, version);
+        } catch (RuntimeException e) {
+            // The reservation lapses on its own; don't fail a write that has landed
+            System.err.println("Could not release sync version " + version + " for user " + userId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Leaves a tombstone for a deleted entity and returns its version, which
+     * the caller releases once any writes that carry it have landed.
+     */
+    public long recordDeleted(String userId, String entity, String entityId) {
+        Tombstone tombstone = new Tombstone();
+        tombstone.setUserId(userId);
+        tombstone.setEntity(entity);
+        tombstone.setEntityId(entityId);
+        tombstone.setSyncVersion(nextVersion(userId));
+        tombstone.setDeletedAt(LocalDateTime.now());
+        try {
+            tombstoneRepository.insert(tombstone);
+        } catch (RuntimeException e) {
+            release(userId, tombstone.getSyncVersion());
+            throw e;
+        }
+        return tombstone.getSyncVersion();
+    }
+
+    /**
+     * Everything that changed after {@code since}. With no previous version
+     * the full current state is returned and there are no tombstones.
+     */
+    public Changes getChanges(String userId, Long since) {
+        // Read before the changes, so anything landing meanwhile comes again next time
+        long version = syncCounterRepository.findById(userId)
+                .map(this::committedVersion)
+                .orElse(0L);
+
+        if (since == null || since <= 0) {
+            return new Changes(version,
+                    transactionRepository.findByUserIdOrderByDateDesc(userId),
+                    budgetRepository.findByUserId(userId),
+                    goalRepository.findByUserIdOrderByCreatedAtDesc(userId),
+                    List.of());
+        }
+
+        return new Changes(version,
+                transactionRepository.findByUserIdAndSyncVersionGreaterThanOrderBySyncVersionAsc(userId, since),
+                budgetRepository.findByUserIdAndSyncVersionGreaterThanOrderBySyncVersionAsc(userId, since),
+                goalRepository.findByUserIdAndSyncVersionGreaterThanOrderBySyncVersionAsc(userId, since),
+                tombstoneRepository.findByUserIdAndSyncVersionGreaterThanOrderBySyncVersionAsc(userId, since));
+    }
+
+    // Everything up to here has landed: below the oldest live reservation, or the counter without one
+    private long committedVersion(SyncCounter counter) {
+        long version = counter.getVersion() != null ? counter.getVersion() : 0L;
+        if (counter.getPending() == null) {
+            return version;
+        }
+
+        Date now = new Date();
+        for (SyncCounter.Pending pending : counter.getPending()) {
+            if (pending.getFirst() != null && pending.getUntil() != null && pending.getUntil().after(now)) {
+                version = Math.min(version, pending.getFirst() - 1);
+            }
+        }
+        return version;
+    }
+}
@@ -0,0 +1,161 @@
+package com.budgetup.service;
+
+import com.budgetup.model.Transaction;
+import com.budgetup.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's transactions straight from a Mongo cursor to an output
+ * stream. Each row is written as soon as it is read, so memory use does not
+ * depend on how many transactions the user has.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER =
+            "id,date,type,amount,category,merchant,description,isRecurring,createdAt\n";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void exportCsv(String userId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+
+        try (Stream<Transaction> rows = stream(userId, from, to)) {
+            Iterator<Transaction> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Transaction t = iterator.next();
+                writeCsvField(writer, t.getId()); writer.write(',');
+                writeCsvField(writer, t.getDate()); writer.write(',');
+                writeCsvField(writer, t.getType()); writer.write(',');
+                writeCsvField(writer, t.getAmount()); writer.write(',');
+                writeCsvField(writer, t.getCategory()); writer.write(',');
+                writeCsvField(writer, t.getMerchant()); writer.write(',');
+                writeCsvField(writer, t.getDescription()); writer.write(',');
+                writeCsvField(writer, t.getIsRecurring()); writer.write(',');
+                writeCsvField(writer, t.getCreatedAt());
+                writer.write('\n');
+            }
+        }
+
+        writer.flush();
+    }
+
+    public void exportNdjson(String userId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // Rows are newline-terminated below instead of space-separated
+        generator.setRootValueSeparator(null);
+
+        try (Stream<Transaction> rows = stream(userId, from, to)) {
+            Iterator<Transaction> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Transaction t = iterator.next();
+                generator.writeStartObject();
+                generator.writeStringField("id", t.getId());
+                generator.writeStringField("date", t.getDate() != null ? t.getDate().toString() : null);
+                generator.writeStringField("type", t.getType());
+                if (t.getAmount() != null) {
+                    generator.writeNumberField("amount", t.getAmount());
+                } else {
+                    generator.writeNullField("amount");
+                }
+                generator.writeStringField("category", t.getCategory());
+                generator.writeStringField("merchant", t.getMerchant());
+                generator.writeStringField("description", t.getDescription());
+                generator.writeObjectField("isRecurring", t.getIsRecurring());
+                generator.writeStringField("createdAt", t.getCreatedAt() != null ? t.getCreatedAt().toString() : null);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+
+        generator.flush();
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed with a non-zero
+     * q-value, or not listed and covered by a non-zero {@code *}.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzip = null;
+        Double any = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0.0;
+                    }
+                }
+            }
+
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = q;
+            } else if ("*".equals(coding)) {
+                any = q;
+            }
+        }
+
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+
+    private Stream<Transaction> stream(String userId, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return transactionRepository.streamByUserIdOrderByDateDesc(userId);
+        }
+
+        Range<LocalDate> range = Range.of(
+                from != null ? Range.Bound.inclusive(from) : Range.Bound.unbounded(),
+                to != null ? Range.Bound.inclusive(to) : Range.Bound.unbounded());
+        return transactionRepository.streamByUserIdAndDateBetweenOrderByDateDesc(userId, range);
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks
+    private void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,322 @@
+package com.budgetup.service;
+
+import com.budgetup.exception.PartialInsertException;
+import com.budgetup.model.Transaction;
+import com.budgetup.payload.request.TransactionRequest;
+import com.budgetup.util.CsvReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of transactions from CSV or a JSON array. Rows are parsed and
+ * validated on the request thread while the previous batch is being inserted
+ * on the import pool, so parsing and writing overlap. Each batch is written
+ * with a single insertMany and updates rollups and budgets once.
+ */
+@Service
+public class TransactionImportService {
+
+    public record RowError(int row, String message) {}
+
+    public record ImportResult(int received, int imported, int failed, List<RowError> errors, List<String> warnings) {}
+
+    // What one batch insert did: rows stored, rows not stored, and any problem after storing
+    private record BatchOutcome(int imported, List<RowError> failed, String warning) {}
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-rows:100000}")
+    private int maxRows;
+
+    private final ExecutorService importExecutor;
+
+    public TransactionImportService(@Value("${app.import.pool-size:4}") int poolSize) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.importExecutor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdown();
+    }
+
+    public ImportResult importCsv(String userId, InputStream in) throws IOException {
+        Pipeline pipeline = new Pipeline(userId);
+        CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            return pipeline.finish();
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            if (!pipeline.hasCapacity()) {
+                pipeline.truncate();
+                break;
+            }
+
+            int row = pipeline.nextRow();
+            try {
+                TransactionRequest request = new TransactionRequest();
+                request.setType(column(record, columns, "type"));
+                request.setCategory(column(record, columns, "category"));
+                request.setMerchant(column(record, columns, "merchant"));
+                request.setDescription(column(record, columns, "description"));
+                request.setDate(column(record, columns, "date"));
+
+                String amount = column(record, columns, "amount");
+                request.setAmount(amount != null ? Double.valueOf(amount) : null);
+
+                String recurring = column(record, columns, "isrecurring");
+                request.setIsRecurring(recurring != null ? Boolean.valueOf(recurring) : null);
+
+                pipeline.accept(row, request);
+            } catch (NumberFormatException e) {
+                pipeline.reject(row, "Amount must be a number");
+            }
+        }
+
+        return pipeline.finish();
+    }
+
+    public ImportResult importJson(String userId, InputStream in) throws IOException {
+        Pipeline pipeline = new Pipeline(userId);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected a JSON array of transactions");
+            }
+
+            while (true) {
+                JsonToken token;
+                try {
+                    token = parser.nextToken();
+                } catch (JsonProcessingException e) {
+                    pipeline.reject(pipeline.nextRow(), "Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                }
+                if (token == JsonToken.END_ARRAY) {
+                    break;
+                }
+                if (token == null) {
+                    // Rows read so far are kept, but the import must not look complete
+                    pipeline.reject(pipeline.nextRow(), "Malformed JSON: the array is not closed");
+                    break;
+                }
+
+                if (!pipeline.hasCapacity()) {
+                    pipeline.truncate();
+                    break;
+                }
+
+                int row = pipeline.nextRow();
+                if (token != JsonToken.START_OBJECT) {
+                    try {
+                        parser.skipChildren();
+                    } catch (JsonProcessingException e) {
+                        pipeline.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+                        break;
+                    }
+                    pipeline.reject(row, "Expected an object");
+                    continue;
+                }
+
+                JsonNode element;
+                try {
+                    element = objectMapper.readTree(parser);
+                } catch (JsonProcessingException e) {
+                    // A syntax error leaves the parser in an unknown position; stop here
+                    pipeline.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                }
+
+                try {
+                    pipeline.accept(row, objectMapper.treeToValue(element, TransactionRequest.class));
+                } catch (JsonProcessingException e) {
+                    // A field of the wrong type only spoils this row
+                    pipeline.reject(row, "Invalid field: " + e.getOriginalMessage());
+                }
+            }
+        }
+
+        return pipeline.finish();
+    }
+
+    private String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Validate, batch and insert stages for one import. At most one batch is in
+     * flight on the import pool while the next one is being parsed.
+     */
+    private class Pipeline {
+
+        private final String userId;
+        private final List<RowError> errors = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private List<Transaction> batch = new ArrayList<>();
+        private List<Integer> batchRows = new ArrayList<>();
+        private CompletableFuture<BatchOutcome> inFlight = CompletableFuture.completedFuture(null);
+        private int received;
+        private int imported;
+        private boolean truncated;
+
+        Pipeline(String userId) {
+            this.userId = userId;
+        }
+
+        boolean hasCapacity() {
+            return received < maxRows;
+        }
+
+        int nextRow() {
+            return ++received;
+        }
+
+        // Called only when a row beyond the limit was actually present
+        void truncate() {
+            truncated = true;
+        }
+
+        void reject(int row, String message) {
+            errors.add(new RowError(row, message));
+        }
+
+        void accept(int row, TransactionRequest request) {
+            Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            try {
+                batch.add(transactionService.newTransaction(userId, request));
+                batchRows.add(row);
+            } catch (DateTimeParseException e) {
+                reject(row, "Date must be in yyyy-MM-dd format");
+                return;
+            }
+
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        ImportResult finish() {
+            flush();
+            awaitInFlight();
+            if (truncated) {
+                errors.add(new RowError(received + 1, "Import stopped after " + maxRows + " rows"));
+            }
+            errors.sort((a, b) -> Integer.compare(a.row(), b.row()));
+            return new ImportResult(received, imported, received - imported, errors, warnings);
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            // Hand this batch to the insert stage once the previous one is done
+            awaitInFlight();
+            List<Transaction> toInsert = batch;
+            List<Integer> rows = batchRows;
+            batch = new ArrayList<>(batchSize);
+            batchRows = new ArrayList<>(batchSize);
+
+            inFlight = CompletableFuture.supplyAsync(() -> {
+                try {
+                    transactionService.createTransactions(userId, toInsert);
+                    return new BatchOutcome(toInsert.size(), List.of(), null);
+                } catch (PartialInsertException e) {
+                    // Only rows that are not stored are reported, so a retry of those cannot duplicate
+                    List<RowError> failed = new ArrayList<>(e.getFailures().size());
+                    e.getFailures().forEach((index, message) ->
+                            failed.add(new RowError(rows.get(index), "Insert failed: " + message)));
+                    String warning = e.getFailures().isEmpty() ? e.getMessage() : null;
+                    return new BatchOutcome(e.getInserted().size(), failed, warning);
+                } catch (RuntimeException e) {
+                    // Failed before anything was stored
+                    List<RowError> failed = new ArrayList<>(rows.size());
+                    for (Integer row : rows) {
+                        failed.add(new RowError(row, "Insert failed: " + e.getMessage()));
+                    }
+                    return new BatchOutcome(0, failed, null);
+                }
+            }, importExecutor);
+        }
+
+        private void awaitInFlight() {
+            BatchOutcome outcome;
+            try {
+                outcome = inFlight.join();
+            } catch (CompletionException e) {
+                throw new RuntimeException("Import failed: " + e.getCause().getMessage());
+            }
+            if (outcome != null) {
+                imported += outcome.imported();
+                errors.addAll(outcome.failed());
+                if (outcome.warning() != null) {
+                    warnings.add(outcome.warning());
+                }
+            }
+            inFlight = CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -1,73 +1,315 @@
 package com.budgetup.service;
 
+import com.budgetup.exception.PartialInsertException;
 import com.budgetup.model.Transaction;
+import com.budgetup.model.TransactionFilter;
+import com.budgetup.payload.request.TransactionListRequest;
 import com.budgetup.payload.request.TransactionRequest;
 import com.budgetup.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    public record TransactionPage(List<Transaction> transactions, String next) {}
+
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private AnalyticsCache analyticsCache;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     public List<Transaction> getAllTransactions(String userId) {
         return transactionRepository.findByUserIdOrderByDateDesc(userId);
     }
 
+    /**
+     * One page of a user's transactions, newest first. The cursor is an opaque
+     * token encoding the (date, id) of the last row of the previous page.
+     */
+    public TransactionPage getTransactionPage(String userId, TransactionListRequest request) {
+        int limit = request.getLimit() != null
+                ? Math.max(1, Math.min(request.getLimit(), MAX_PAGE_SIZE))
+                : DEFAULT_PAGE_SIZE;
+
+        TransactionFilter filter = new TransactionFilter(
+                request.getType(),
+                request.getCategory(),
+                request.getFrom() != null ? LocalDate.parse(request.getFrom()) : null,
+                request.getTo() != null ? LocalDate.parse(request.getTo()) : null,
+                request.getMinAmount(),
+                request.getMaxAmount()
+        );
+
+        LocalDate afterDate = null;
+        String afterId = null;
+        if (request.getCursor() != null && !request.getCursor().isEmpty()) {
+            String[] position = decodeCursor(request.getCursor());
+            afterDate = LocalDate.parse(position[0]);
+            afterId = position[1];
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<Transaction> rows = transactionRepository.findPage(userId, filter, afterDate, afterId, limit + 1);
+
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Transaction last = rows.get(limit - 1);
+            next = encodeCursor(last.getDate(), last.getId());
+        }
+
+        return new TransactionPage(rows, next);
+    }
+
     public List<Transaction> getTransactionsByDateRange(String userId, LocalDate start, LocalDate end) {
         return transactionRepository.findByUserIdAndDateBetweenOrderByDateDesc(userId, start, end);
     }
 
     public Transaction createTransaction(String userId, TransactionRequest request) {
-        Transaction transaction = new Transaction();
-        transaction.setUserId(userId);
-        transaction.setType(request.getType());
-        transaction.setAmount(request.getAmount());
-        transaction.setCategory(request.getCategory());
-        transaction.setMerchant(request.getMerchant());
-        transaction.setDescription(request.getDescription());
-        transaction.setDate(LocalDate.parse(request.getDate()));
-        transaction.setIsRecurring(request.getIsRecurring() != null ? request.getIsRecurring() : false);
-        transaction.setCreatedAt(LocalDateTime.now());
-        transaction.setUpdatedAt(LocalDateTime.now());
+        Transaction transaction = newTransaction(userId, request);
+        transaction.setSyncVersion(syncService.nextVersion(userId));
+
+        try {
+            Transaction saved = transactionRepository.save(transaction);
+            rollupService.recordCreated(saved);
+            budgetService.recordCreated(saved);
+            analyticsCache.evictUser(userId);
+            resourceVersions.bump(userId, ResourceVersions.Collection.TRANSACTIONS, ResourceVersions.Collection.BUDGETS);
+            return saved;
+        } finally {
+            syncService.release(userId, transaction.getSyncVersion());
+        }
+    }
+
+    /**
+     * Inserts a batch of already-validated transactions with one insertMany and
+     * feeds rollups and budgets once for the whole batch. If only part of the
+     * batch is stored, or the bookkeeping after the insert fails, throws a
+     * PartialInsertException that says which rows are stored.
+     */
+    public List<Transaction> createTransactions(String userId, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+
+        long first = syncService.reserveVersions(userId, transactions.size());
+        long version = first;
+        for (Transaction transaction : transactions) {
+            transaction.setSyncVersion(version++);
+        }
+
+        try {
+            return insertAndRecord(transactions, List.of(userId));
+        } finally {
+            syncService.release(userId, first);
+        }
+    }
+
+    /**
+     * Inserts generated occurrences of recurring transactions, for any number
+     * of users, with one unordered insertMany. Occurrences that already exist
+     * for their template and date are skipped; only the inserted ones reach
+     * rollups and budgets and are returned. As with createTransactions, rows
+     * stored before another error are recorded before it is rethrown.
+     */
+    public List<Transaction> createOccurrences(List<Transaction> occurrences) {
+        if (occurrences.isEmpty()) {
+            return occurrences;
+        }
+
+        Map<String, List<Transaction>> byUser = occurrences.stream()
+                .collect(Collectors.groupingBy(Transaction::getUserId, LinkedHashMap::new, Collectors.toList()));
+        Map<String, Long> firsts = new HashMap<>();
+        try {
+            byUser.forEach((userId, transactions) -> {
+                long version = syncService.reserveVersions(userId, transactions.size());
+                firsts.put(userId, version);
+                for (Transaction transaction : transactions) {
+                    transaction.setSyncVersion(version++);
+                }
+            });
 
-        return transactionRepository.save(transaction);
+            return insertAndRecord(occurrences, byUser.keySet());
+        } finally {
+            firsts.forEach(syncService::release);
+        }
     }
 
     public Transaction updateTransaction(String userId, String id, TransactionRequest request) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        LocalDate date = request.getDate() != null ? LocalDate.parse(request.getDate()) : null;
+        LocalDateTime now = LocalDateTime.now();
+        long version = syncService.nextVersion(userId);
+        try {
+            return applyUpdate(userId, id, request, date, now, version);
+        } finally {
+            syncService.release(userId, version);
+        }
+    }
 
-        if (!transaction.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized");
+    private Transaction applyUpdate(String userId, String id, TransactionRequest request,
+                                    LocalDate date, LocalDateTime now, long version) {
+        Update update = new Update().set("updatedAt", now).set("syncVersion", version);
+        if (request.getType() != null) update.set("type", request.getType());
+        if (request.getAmount() != null) update.set("amount", request.getAmount());
+        if (request.getCategory() != null) update.set("category", request.getCategory());
+        if (request.getMerchant() != null) update.set("merchant", request.getMerchant());
+        if (request.getDescription() != null) update.set("description", request.getDescription());
+        if (date != null) update.set("date", date);
+        if (request.getIsRecurring() != null) update.set("isRecurring", request.getIsRecurring());
+        if (Boolean.TRUE.equals(request.getIsRecurring())) update.set("recurringHash", RecurringTransactionService.hashOf(userId));
+
+        // One round trip: ownership check, update, and the previous state for rollups
+        Transaction transaction = transactionRepository.findAndUpdateOwned(userId, id, update);
+        if (transaction == null) {
+            throw new RuntimeException("Transaction not found");
         }
 
+        // Both sides of a move between budgets carry the new version
+        Transaction before = snapshot(transaction);
+        before.setSyncVersion(version);
+
         if (request.getType() != null) transaction.setType(request.getType());
         if (request.getAmount() != null) transaction.setAmount(request.getAmount());
         if (request.getCategory() != null) transaction.setCategory(request.getCategory());
         if (request.getMerchant() != null) transaction.setMerchant(request.getMerchant());
         if (request.getDescription() != null) transaction.setDescription(request.getDescription());
-        if (request.getDate() != null) transaction.setDate(LocalDate.parse(request.getDate()));
+        if (date != null) transaction.setDate(date);
         if (request.getIsRecurring() != null) transaction.setIsRecurring(request.getIsRecurring());
-        transaction.setUpdatedAt(LocalDateTime.now());
+        transaction.setUpdatedAt(now);
+        transaction.setSyncVersion(version);
 
-        return transactionRepository.save(transaction);
+        rollupService.recordUpdated(before, transaction);
+        budgetService.recordUpdated(before, transaction);
+        analyticsCache.evictUser(userId);
+        resourceVersions.bump(userId, ResourceVersions.Collection.TRANSACTIONS, ResourceVersions.Collection.BUDGETS);
+        return transaction;
     }
 
     public void deleteTransaction(String userId, String id) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        Transaction transaction = transactionRepository.findAndRemoveOwned(userId, id);
+        if (transaction == null) {
+            throw new RuntimeException("Transaction not found");
+        }
+
+        // The budget change caused by this delete carries the tombstone's version
+        transaction.setSyncVersion(syncService.recordDeleted(userId, SyncService.TRANSACTION, id));
+
+        try {
+            rollupService.recordDeleted(transaction);
+            budgetService.recordDeleted(transaction);
+            analyticsCache.evictUser(userId);
+            resourceVersions.bump(userId, ResourceVersions.Collection.TRANSACTIONS, ResourceVersions.Collection.BUDGETS);
+        } finally {
+            syncService.release(userId, transaction.getSyncVersion());
+        }
+    }
+
+    // Rows that were stored reach rollups and budgets even when others in the batch failed
+    private List<Transaction> insertAndRecord(List<Transaction> transactions, Collection<String> userIds) {
+        List<Transaction> saved;
+        Map<Integer, String> failures = Map.of();
+        PartialInsertException insertFailure = null;
+        try {
+            saved = transactionRepository.insertIgnoringDuplicates(transactions);
+        } catch (PartialInsertException e) {
+            saved = e.getInserted();
+            failures = e.getFailures();
+            insertFailure = e;
+        }
+
+        try {
+            rollupService.recordCreated(saved);
+            budgetService.recordCreated(saved);
+        } catch (RuntimeException e) {
+            throw new PartialInsertException("Stored " + saved.size() + " transactions but could not update"
+                    + " rollups and budgets: " + e.getMessage(), saved, failures, e);
+        } finally {
+            for (String userId : userIds) {
+                analyticsCache.evictUser(userId);
+                resourceVersions.bump(userId, ResourceVersions.Collection.TRANSACTIONS, ResourceVersions.Collection.BUDGETS);
+            }
+        }
 
-        if (!transaction.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized");
+        if (insertFailure != null) {
+            throw insertFailure;
         }
+        return saved;
+    }
+
+    // Copies the fields that decide which rollup bucket and budget a transaction lands in
+    private Transaction snapshot(Transaction transaction) {
+        Transaction copy = new Transaction();
+        copy.setId(transaction.getId());
+        copy.setUserId(transaction.getUserId());
+        copy.setType(transaction.getType());
+        copy.setAmount(transaction.getAmount());
+        copy.setCategory(transaction.getCategory());
+        copy.setDate(transaction.getDate());
+        return copy;
+    }
+
+    private String encodeCursor(LocalDate date, String id) {
+        String position = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
 
-        transactionRepository.deleteById(id);
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    Transaction newTransaction(String userId, TransactionRequest request) {
+        Transaction transaction = new Transaction();
+        transaction.setUserId(userId);
+        transaction.setType(request.getType());
+        transaction.setAmount(request.getAmount());
+        transaction.setCategory(request.getCategory());
+        transaction.setMerchant(request.getMerchant());
+        transaction.setDescription(request.getDescription());
+        transaction.setDate(LocalDate.parse(request.getDate()));
+        transaction.setIsRecurring(request.getIsRecurring() != null ? request.getIsRecurring() : false);
+        if (transaction.getIsRecurring()) {
+            transaction.setRecurringHash(RecurringTransactionService.hashOf(userId));
+        }
+        transaction.setCreatedAt(LocalDateTime.now());
+        transaction.setUpdatedAt(LocalDateTime.now());
+        return transaction;
     }
 }
@@ -0,0 +1,121 @@
+package com.budgetup.service;
+
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Single-pass accumulator for analytics: income, expense, count and expense
+ * per category, kept in primitive fields and arrays so summing thousands of
+ * rows does not box a Double per row. Categories live in a small
+ * open-addressing table since a user rarely has more than a few dozen.
+ */
+public final class TransactionTotals {
+
+    private double income;
+    private double expense;
+    private long count;
+
+    private String[] categories = new String[16];
+    private double[] categoryExpense = new double[16];
+    private int categoryCount;
+
+    // Legacy rows may lack a category; they get a bucket of their own
+    private boolean hasUncategorized;
+    private double uncategorizedExpense;
+
+    public void add(String type, Double amount, String category) {
+        count++;
+        if (amount == null) {
+            return;
+        }
+
+        if ("income".equals(type)) {
+            income += amount;
+        } else if ("expense".equals(type)) {
+            expense += amount;
+            addCategoryExpense(category, amount);
+        }
+    }
+
+    /**
+     * Folds in an already-aggregated bucket, such as a monthly rollup.
+     */
+    public void addBucket(String category, double bucketIncome, double bucketExpense, long bucketCount) {
+        income += bucketIncome;
+        expense += bucketExpense;
+        count += bucketCount;
+        if (bucketExpense != 0) {
+            addCategoryExpense(category, bucketExpense);
+        }
+    }
+
+    public double getIncome() {
+        return income;
+    }
+
+    public double getExpense() {
+        return expense;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Visits every category that has expenses, in no particular order.
+     */
+    public void forEachCategory(ObjDoubleConsumer<String> consumer) {
+        for (int i = 0; i < categories.length; i++) {
+            if (categories[i] != null) {
+                consumer.accept(categories[i], categoryExpense[i]);
+            }
+        }
+        if (hasUncategorized) {
+            consumer.accept(null, uncategorizedExpense);
+        }
+    }
+
+    private void addCategoryExpense(String category, double amount) {
+        if (category == null) {
+            hasUncategorized = true;
+            uncategorizedExpense += amount;
+            return;
+        }
+        categoryExpense[slotOf(category)] += amount;
+    }
+
+    private int slotOf(String category) {
+        int mask = categories.length - 1;
+        int slot = category.hashCode() & mask;
+
+        while (categories[slot] != null) {
+            if (categories[slot].equals(category)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if ((categoryCount + 1) * 2 > categories.length) {
+            grow();
+            return slotOf(category);
+        }
+
+        categories[slot] = category;
+        categoryCount++;
+        return slot;
+    }
+
+    private void grow() {
+        String[] oldCategories = categories;
+        double[] oldExpense = categoryExpense;
+
+        categories = new String[oldCategories.length * 2];
+        categoryExpense = new double[oldCategories.length * 2];
+        categoryCount = 0;
+
+        for (int i = 0; i < oldCategories.length; i++) {
+            if (oldCategories[i] != null) {
+                categoryExpense[slotOf(oldCategories[i])] = oldExpense[i];
+            }
+        }
+    }
+}
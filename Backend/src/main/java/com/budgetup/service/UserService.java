@@ -2,11 +2,11 @@ package com.budgetup.service;
 
 import com.budgetup.model.User;
 import com.budgetup.repository.UserRepository;
+import com.budgetup.security.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,7 +17,13 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
 
     public User getUserById(String userId) {
         return userRepository.findById(userId)
@@ -35,64 +41,56 @@ public class UserService {
         return Map.of("needsOnboarding", needsOnboarding, "isOnboarded", !needsOnboarding);
     }
 
-    @SuppressWarnings("unchecked")
     public User completeOnboarding(String userId, Map<String, Object> onboardingData) {
-        User user = getUserById(userId);
+        Map<String, Object> fields = new HashMap<>();
 
         if (onboardingData.containsKey("fullName")) {
-            user.setFullName((String) onboardingData.get("fullName"));
-            user.setName((String) onboardingData.get("fullName"));
+            fields.put("fullName", textOf(onboardingData, "fullName"));
+            fields.put("name", textOf(onboardingData, "fullName"));
         }
         if (onboardingData.containsKey("country")) {
-            user.setCountry((String) onboardingData.get("country"));
+            fields.put("country", textOf(onboardingData, "country"));
         }
         if (onboardingData.containsKey("flag")) {
-            user.setFlag((String) onboardingData.get("flag"));
+            fields.put("flag", textOf(onboardingData, "flag"));
         }
         if (onboardingData.containsKey("currency")) {
-            user.setCurrency((String) onboardingData.get("currency"));
+            fields.put("currency", textOf(onboardingData, "currency"));
         }
         if (onboardingData.containsKey("occupation")) {
-            user.setOccupation((String) onboardingData.get("occupation"));
+            fields.put("occupation", textOf(onboardingData, "occupation"));
         }
         if (onboardingData.containsKey("monthlyIncome")) {
-            Object income = onboardingData.get("monthlyIncome");
-            user.setMonthlyIncome(income instanceof Number ? ((Number) income).doubleValue() : 0.0);
+            fields.put("monthlyIncome", amountOf(onboardingData.get("monthlyIncome")));
         }
         if (onboardingData.containsKey("pocketMoney")) {
-            Object pocket = onboardingData.get("pocketMoney");
-            user.setPocketMoney(pocket instanceof Number ? ((Number) pocket).doubleValue() : 0.0);
+            fields.put("pocketMoney", amountOf(onboardingData.get("pocketMoney")));
         }
         if (onboardingData.containsKey("incomeFrequency")) {
-            user.setIncomeFrequency((String) onboardingData.get("incomeFrequency"));
+            fields.put("incomeFrequency", textOf(onboardingData, "incomeFrequency"));
         }
         if (onboardingData.containsKey("financialGoals")) {
-            user.setFinancialGoals((List<String>) onboardingData.get("financialGoals"));
+            fields.put("financialGoals", textListOf(onboardingData, "financialGoals"));
         }
 
-        user.setIsOnboarded(true);
-        user.setUpdatedAt(LocalDateTime.now());
-
-        return userRepository.save(user);
+        fields.put("isOnboarded", true);
+        return update(userId, fields);
     }
 
     public User updateFinancialSettings(String userId, Map<String, Object> settings) {
-        User user = getUserById(userId);
+        Map<String, Object> fields = new HashMap<>();
 
         if (settings.containsKey("monthlyIncome")) {
-            Object income = settings.get("monthlyIncome");
-            user.setMonthlyIncome(income instanceof Number ? ((Number) income).doubleValue() : 0.0);
+            fields.put("monthlyIncome", amountOf(settings.get("monthlyIncome")));
         }
         if (settings.containsKey("pocketMoney")) {
-            Object pocket = settings.get("pocketMoney");
-            user.setPocketMoney(pocket instanceof Number ? ((Number) pocket).doubleValue() : 0.0);
+            fields.put("pocketMoney", amountOf(settings.get("pocketMoney")));
         }
         if (settings.containsKey("incomeFrequency")) {
-            user.setIncomeFrequency((String) settings.get("incomeFrequency"));
+            fields.put("incomeFrequency", textOf(settings, "incomeFrequency"));
         }
 
-        user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        return update(userId, fields);
     }
 
     public User getProfile(String userId) {
@@ -100,39 +98,75 @@ public class UserService {
     }
 
     public User updateProfile(String userId, Map<String, Object> profileData) {
-        User user = getUserById(userId);
+        Map<String, Object> fields = new HashMap<>();
 
         if (profileData.containsKey("displayName")) {
-            user.setName((String) profileData.get("displayName"));
-            user.setFullName((String) profileData.get("displayName"));
+            fields.put("name", textOf(profileData, "displayName"));
+            fields.put("fullName", textOf(profileData, "displayName"));
         }
         if (profileData.containsKey("firstName") && profileData.containsKey("lastName")) {
-            String fullName = profileData.get("firstName") + " " + profileData.get("lastName");
-            user.setFullName(fullName.trim());
+            String fullName = textOf(profileData, "firstName") + " " + textOf(profileData, "lastName");
+            fields.put("fullName", fullName.trim());
         }
 
-        user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        return update(userId, fields);
     }
 
     public void changePassword(String userId, String oldPassword, String newPassword) {
         User user = getUserById(userId);
 
-        if (user.getPassword() != null && !passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (user.getPassword() != null && !passwordHashingService.matches(oldPassword, user.getPassword())) {
             throw new RuntimeException("Current password is incorrect");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setIsPasswordSet(true);
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        setPassword(userId, newPassword);
     }
 
     public void setPassword(String userId, String password) {
-        User user = getUserById(userId);
-        user.setPassword(passwordEncoder.encode(password));
-        user.setIsPasswordSet(true);
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("password", passwordHashingService.encode(password));
+        fields.put("isPasswordSet", true);
+
+        if (!userRepository.setFields(userId, fields)) {
+            throw new RuntimeException("User not found");
+        }
+        userDetailsService.evict(userId);
+        resourceVersions.bump(userId, ResourceVersions.Collection.USER);
+    }
+
+    // Writes only the changed fields and updatedAt, not the whole document
+    private User update(String userId, Map<String, Object> fields) {
+        User updated = userRepository.setFieldsAndGet(userId, fields);
+        if (updated == null) {
+            throw new RuntimeException("User not found");
+        }
+        userDetailsService.evict(userId);
+        resourceVersions.bump(userId, ResourceVersions.Collection.USER);
+        return updated;
+    }
+
+    // Values are written with $set as they are, so anything but a string would
+    // store the wrong BSON type and break every later read of the user
+    private String textOf(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (value != null && !(value instanceof String)) {
+            throw new RuntimeException(key + " must be a string");
+        }
+        return (String) value;
+    }
+
+    private List<String> textListOf(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof List<?> list) || !list.stream().allMatch(item -> item instanceof String)) {
+            throw new RuntimeException(key + " must be a list of strings");
+        }
+        return list.stream().map(String.class::cast).toList();
+    }
+
+    private Double amountOf(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
     }
 }